@@ -0,0 +1,48 @@
+package com.example.benchmark;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+import com.example.DatasetGenerator;
+
+/**
+ * Builds the synthetic movies and users files the benchmarks parse, using
+ * {@link DatasetGenerator} with a fixed seed so every run sees the same data.
+ */
+final class BenchmarkData {
+
+    static final long SEED = 42;
+    static final double GENRE_SKEW = 1.0;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Returns the contents of a movies file with the given number of movies
+     * spread over {@code genres} genres.
+     */
+    static String movies(int count, int genres) {
+        StringWriter out = new StringWriter();
+        try {
+            new DatasetGenerator(count, genres, GENRE_SKEW, 1, SEED).writeMovies(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Returns the contents of a users file with the given number of users,
+     * each liking {@code likes} movies of a catalog of {@code movies} movies.
+     */
+    static String users(int count, int movies, int likes) {
+        StringWriter out = new StringWriter();
+        try {
+            new DatasetGenerator(movies, 1, GENRE_SKEW, likes, SEED).writeUsers(out, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.DataStore;
+import com.example.MovieParser;
+import com.example.ParseResult;
+import com.example.UserParser;
+
+/**
+ * Time to validate and index parsed data with
+ * {@link DataStore#DataStore(ParseResult)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataStoreBenchmark {
+
+    @Param({"100", "1000"})
+    int movies;
+
+    @Param({"10000", "100000"})
+    int users;
+
+    @Param({"20"})
+    int genres;
+
+    @Param({"5"})
+    int likes;
+
+    ParseResult parseResult;
+
+    @Setup
+    public void setUp() throws Exception {
+        parseResult = new ParseResult(
+                new MovieParser().parseMovies(BenchmarkData.movies(movies, genres)),
+                new UserParser().parseUsers(BenchmarkData.users(users, movies, likes)));
+    }
+
+    @Benchmark
+    public DataStore load() throws Exception {
+        return new DataStore(parseResult);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.Movie;
+import com.example.MovieParser;
+
+/**
+ * Time to parse a movies file with {@link MovieParser#parseMovies(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieParserBenchmark {
+
+    @Param({"100", "1000"})
+    int movies;
+
+    @Param({"20"})
+    int genres;
+
+    String moviesFileData;
+
+    @Setup
+    public void setUp() {
+        moviesFileData = BenchmarkData.movies(movies, genres);
+    }
+
+    @Benchmark
+    public List<Movie> parseMovies() throws Exception {
+        return new MovieParser().parseMovies(moviesFileData);
+    }
+}
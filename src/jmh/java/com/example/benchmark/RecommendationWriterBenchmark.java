@@ -0,0 +1,103 @@
+package com.example.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.DataStore;
+import com.example.Movie;
+import com.example.MovieParser;
+import com.example.ParseResult;
+import com.example.RecommendationWriter;
+import com.example.Recommender;
+import com.example.User;
+import com.example.UserParser;
+
+/**
+ * Time to write the recommendations of every user with
+ * {@link RecommendationWriter#writeRecommendations(User, List)}, both opening
+ * the file per user and within a single writer session.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecommendationWriterBenchmark {
+
+    @Param({"100", "1000"})
+    int movies;
+
+    @Param({"1000", "10000"})
+    int users;
+
+    @Param({"20"})
+    int genres;
+
+    @Param({"5"})
+    int likes;
+
+    List<User> userList;
+    List<List<Movie>> recommendations;
+    Path output;
+
+    @Setup
+    public void setUp() throws Exception {
+        DataStore dataStore = new DataStore(new ParseResult(
+                new MovieParser().parseMovies(BenchmarkData.movies(movies, genres)),
+                new UserParser().parseUsers(BenchmarkData.users(users, movies, likes))));
+        Recommender recommender = new Recommender(dataStore);
+        userList = dataStore.getUsers();
+        recommendations = new ArrayList<>();
+        for (User user : userList) {
+            recommendations.add(recommender.recommendMovies(user));
+        }
+        output = Files.createTempFile("recommendations", ".txt");
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws IOException {
+        Files.write(output, new byte[0]);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public void writePerCall() {
+        RecommendationWriter writer = new RecommendationWriter(output.toString());
+        for (int i = 0; i < userList.size(); i++) {
+            writer.writeRecommendations(userList.get(i), recommendations.get(i));
+        }
+    }
+
+    @Benchmark
+    public void writeSession() {
+        try (RecommendationWriter writer = new RecommendationWriter(output.toString())) {
+            writer.open();
+            for (int i = 0; i < userList.size(); i++) {
+                writer.writeRecommendations(userList.get(i), recommendations.get(i));
+            }
+        }
+    }
+}
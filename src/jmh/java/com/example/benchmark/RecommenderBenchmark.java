@@ -0,0 +1,80 @@
+package com.example.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.DataStore;
+import com.example.Movie;
+import com.example.MovieParser;
+import com.example.ParseResult;
+import com.example.Recommender;
+import com.example.User;
+import com.example.UserParser;
+
+/**
+ * Time of one {@link Recommender#recommendMovies(User)} or
+ * {@link Recommender#recommendTopMovies(User, int)} call. Each call takes the
+ * next user of the data store, so the cost is averaged over all users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecommenderBenchmark {
+
+    @Param({"100", "1000"})
+    int movies;
+
+    @Param({"10000"})
+    int users;
+
+    @Param({"20"})
+    int genres;
+
+    @Param({"5"})
+    int likes;
+
+    @Param({"10"})
+    int topK;
+
+    Recommender recommender;
+    List<User> userList;
+    int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        DataStore dataStore = new DataStore(new ParseResult(
+                new MovieParser().parseMovies(BenchmarkData.movies(movies, genres)),
+                new UserParser().parseUsers(BenchmarkData.users(users, movies, likes))));
+        recommender = new Recommender(dataStore);
+        userList = dataStore.getUsers();
+    }
+
+    @Benchmark
+    public List<Movie> recommendMovies() {
+        User user = userList.get(next);
+        next = next + 1 == userList.size() ? 0 : next + 1;
+        return recommender.recommendMovies(user);
+    }
+
+    @Benchmark
+    public List<Movie> recommendTopMovies() {
+        User user = userList.get(next);
+        next = next + 1 == userList.size() ? 0 : next + 1;
+        return recommender.recommendTopMovies(user, topK);
+    }
+}
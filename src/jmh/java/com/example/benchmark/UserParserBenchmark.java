@@ -0,0 +1,52 @@
+package com.example.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.User;
+import com.example.UserParser;
+
+/**
+ * Time to parse a users file with {@link UserParser#parseUsers(String)}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserParserBenchmark {
+
+    @Param({"10000", "100000"})
+    int users;
+
+    @Param({"1000"})
+    int movies;
+
+    @Param({"5"})
+    int likes;
+
+    String usersFileData;
+
+    @Setup
+    public void setUp() {
+        usersFileData = BenchmarkData.users(users, movies, likes);
+    }
+
+    @Benchmark
+    public List<User> parseUsers() throws Exception {
+        return new UserParser().parseUsers(usersFileData);
+    }
+}
@@ -0,0 +1,163 @@
+package com.example;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Writes recommendations on a dedicated thread so that computing them and
+ * writing them to disk overlap. Results are queued in the order they are
+ * handed over and written in that order, even when they are computed out of
+ * order. The queue is bounded: handing over a result blocks while the queue
+ * is full, which limits how far computation can run ahead of the disk.
+ *
+ * <p>A write or computation failure stops further writing. It is rethrown by
+ * every later {@code write} call, and by {@link #close()} only if no
+ * {@code write} call has thrown it, so that it is reported once when the
+ * writer is used in a try-with-resources statement.
+ */
+public class AsyncRecommendationWriter implements AutoCloseable {
+
+    private static final Entry END = new Entry(null, null);
+
+    private RecommendationWriter writer;
+    private Consumer<User> onWritten;
+    private BlockingQueue<Entry> queue;
+    private Thread thread;
+    private volatile Throwable failure;
+    private volatile boolean failureThrown; // Whether a write call has thrown the failure
+
+    /**
+     * Starts the writer thread.
+     *
+     * @param writer    the writer the results are written to.
+     * @param capacity  the number of results that can wait to be written.
+     * @param onWritten called on the writer thread after each user is
+     *                  written, or {@code null}.
+     */
+    public AsyncRecommendationWriter(RecommendationWriter writer, int capacity, Consumer<User> onWritten) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive: " + capacity);
+        }
+        this.writer = writer;
+        this.onWritten = onWritten;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.thread = new Thread(this::drain, "recommendation-writer");
+        thread.start();
+    }
+
+    /**
+     * Queues a user's computed recommendations, waiting while the queue is
+     * full.
+     *
+     * @throws Exception the failure that stopped the writer thread, if any.
+     */
+    public void write(User user, List<Movie> recommendations) throws Exception {
+        write(user, CompletableFuture.completedFuture(recommendations));
+    }
+
+    /**
+     * Queues a user's recommendations that are still being computed, waiting
+     * while the queue is full. The writer thread waits for the result when
+     * the user's turn comes.
+     *
+     * @throws Exception the failure that stopped the writer thread, if any.
+     */
+    public void write(User user, Future<List<Movie>> recommendations) throws Exception {
+        Throwable failure = this.failure;
+        if (failure != null) {
+            failureThrown = true;
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            throw (Exception) failure;
+        }
+        queue.put(new Entry(user, recommendations));
+    }
+
+    /**
+     * Waits until every queued result is written and stops the writer thread.
+     * The failure that stopped the writer thread is rethrown unless a
+     * {@code write} call has already thrown it; a checked failure is wrapped
+     * in a {@link CompletionException}.
+     *
+     * @throws CompletionException if the calling thread is interrupted while
+     *                             waiting, with its interrupt status set.
+     */
+    @Override
+    public void close() {
+        try {
+            if (thread.isAlive()) {
+                queue.put(END);
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+        Throwable failure = this.failure;
+        if (failure == null || failureThrown) {
+            return;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        throw new CompletionException(failure);
+    }
+
+    private void drain() {
+        boolean interrupted = false;
+        while (true) {
+            Entry entry;
+            try {
+                entry = queue.take();
+            } catch (InterruptedException e) {
+                // Stop writing, but keep taking entries until END so no caller waits forever
+                if (failure == null) {
+                    failure = e;
+                }
+                interrupted = true;
+                continue;
+            }
+            if (entry == END) {
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                return;
+            }
+            if (failure != null) {
+                // Keep taking entries so producers never block on a full queue
+                continue;
+            }
+            try {
+                writer.writeRecommendations(entry.user, entry.recommendations.get());
+                if (onWritten != null) {
+                    onWritten.accept(entry.user);
+                }
+            } catch (ExecutionException e) {
+                // Report what the computation threw, as if it had run on this thread
+                failure = e.getCause();
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+    }
+
+    private static class Entry {
+        User user;
+        Future<List<Movie>> recommendations;
+
+        Entry(User user, Future<List<Movie>> recommendations) {
+            this.user = user;
+            this.recommendations = recommendations;
+        }
+    }
+}
@@ -0,0 +1,291 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Recommends the movies most often liked together with the user's liked
+ * movies. When it is created, it counts for every pair of movies how many
+ * users like both, and keeps only the {@code neighbors} most co-liked movies
+ * of each movie. A user's recommendations are their liked movies' neighbors,
+ * scored by the sum of the co-like counts, so scoring a user costs
+ * O(likes x neighbors) instead of a pass over the catalog. Counting and
+ * ranking use primitive arrays only: a per-thread score array, a stack of
+ * the movies it touched and a bounded heap of packed keys.
+ *
+ * <p>The neighbor lists reflect the users in the data store when the
+ * recommender was created. Like {@link Recommender}, it can serve several
+ * threads at once.
+ */
+public class CoOccurrenceRecommender extends Recommender {
+
+    private int[] positions; // Movie ID ordinal -> catalog position, or -1
+    // Neighbors of the movie at catalog position i are at offsets[i] until offsets[i + 1]
+    private int[] offsets;
+    private int[] neighborPositions;
+    private int[] neighborCounts;
+    private ThreadLocal<Scratch> scratch;
+
+    /**
+     * Builds the neighbor lists from the liked movies of every user in the
+     * data store. Movies are processed in parallel.
+     *
+     * @param data      The data store to use for generating recommendations.
+     * @param neighbors The number of most co-liked movies kept per movie.
+     */
+    public CoOccurrenceRecommender(DataStore data, int neighbors) {
+        // Neighbor positions must stay valid in the catalog they were built from
+        super(data.snapshot());
+        if (neighbors < 1) {
+            throw new IllegalArgumentException("Neighbor count must be positive: " + neighbors);
+        }
+        data = getDataStore();
+        List<Movie> movies = data.getMovies();
+        int catalogSize = movies.size();
+        scratch = ThreadLocal.withInitial(() -> new Scratch(catalogSize));
+        positions = new int[SymbolTable.MOVIE_IDS.size()];
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < catalogSize; i++) {
+            positions[movies.get(i).getIdOrdinal()] = i;
+        }
+
+        // Liked movies of each user as catalog positions, and the users who like each movie
+        List<User> users = data.getUsers();
+        int[][] likes = new int[users.size()][];
+        int[] likerCounts = new int[catalogSize];
+        for (int u = 0; u < likes.length; u++) {
+            likes[u] = likedPositions(users.get(u));
+            for (int movie : likes[u]) {
+                likerCounts[movie]++;
+            }
+        }
+        int[][] likers = new int[catalogSize][];
+        for (int i = 0; i < catalogSize; i++) {
+            likers[i] = new int[likerCounts[i]];
+            likerCounts[i] = 0;
+        }
+        for (int u = 0; u < likes.length; u++) {
+            for (int movie : likes[u]) {
+                likers[movie][likerCounts[movie]++] = u;
+            }
+        }
+
+        // Each movie's neighbors depend only on its own likers, so movies are counted independently
+        int[][][] lists = new int[catalogSize][][];
+        IntStream.range(0, catalogSize).parallel().forEach(
+                i -> lists[i] = topNeighbors(i, likers[i], likes, scratch.get(), neighbors));
+
+        offsets = new int[catalogSize + 1];
+        for (int i = 0; i < catalogSize; i++) {
+            offsets[i + 1] = offsets[i] + lists[i][0].length;
+        }
+        neighborPositions = new int[offsets[catalogSize]];
+        neighborCounts = new int[offsets[catalogSize]];
+        for (int i = 0; i < catalogSize; i++) {
+            System.arraycopy(lists[i][0], 0, neighborPositions, offsets[i], lists[i][0].length);
+            System.arraycopy(lists[i][1], 0, neighborCounts, offsets[i], lists[i][1].length);
+        }
+    }
+
+    /**
+     * Counts how often each movie is liked together with movie {@code i} and
+     * returns the best {@code neighbors} of them as {positions, counts}, most
+     * co-liked first. The scratch scores are all zeros on entry and on return.
+     */
+    private static int[][] topNeighbors(int i, int[] likers, int[][] likes, Scratch scratch, int neighbors) {
+        int[] counts = scratch.scores;
+        int touched = 0;
+        for (int user : likers) {
+            for (int other : likes[user]) {
+                if (other != i && counts[other]++ == 0) {
+                    scratch.touched[touched++] = other;
+                }
+            }
+        }
+        TopKeys best = new TopKeys(neighbors, touched);
+        for (int t = 0; t < touched; t++) {
+            int other = scratch.touched[t];
+            best.offer(key(counts[other], other));
+            counts[other] = 0;
+        }
+        int[][] list = new int[2][best.size()];
+        for (int n = best.size() - 1; n >= 0; n--) {
+            long key = best.poll();
+            list[0][n] = position(key);
+            list[1][n] = (int) (key >>> 32);
+        }
+        return list;
+    }
+
+    /**
+     * Generates recommendations ranked by co-like score, best first. Only
+     * movies that are neighbors of a liked movie are recommended.
+     *
+     * @param user The user for whom to generate recommendations.
+     */
+    @Override
+    public List<Movie> recommendMovies(User user) {
+        return recommendTopMovies(user, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Generates the {@code k} movies with the highest co-like scores, best
+     * first; equal scores are ranked in catalog order.
+     *
+     * @param user The user for whom to generate recommendations.
+     * @param k    The maximum number of recommendations to return.
+     * @throws IllegalArgumentException if {@code k} is negative.
+     */
+    @Override
+    public List<Movie> recommendTopMovies(User user, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Number of recommendations must not be negative: " + k);
+        }
+        Events.Recommend event = new Events.Recommend();
+        event.begin();
+        long start = System.nanoTime();
+        int[] liked = likedPositions(user);
+        Scratch scratch = this.scratch.get();
+        int[] scores = scratch.scores;
+        // Liked movies are marked so they are never touched or ranked
+        for (int movie : liked) {
+            scores[movie] = Integer.MIN_VALUE;
+        }
+        int touched = 0;
+        for (int movie : liked) {
+            for (int n = offsets[movie]; n < offsets[movie + 1]; n++) {
+                int other = neighborPositions[n];
+                if (scores[other] == 0) {
+                    scratch.touched[touched++] = other;
+                }
+                if (scores[other] >= 0) {
+                    scores[other] += neighborCounts[n];
+                }
+            }
+        }
+        TopKeys best = new TopKeys(k, touched);
+        for (int t = 0; t < touched; t++) {
+            int other = scratch.touched[t];
+            best.offer(key(scores[other], other));
+            scores[other] = 0;
+        }
+        for (int movie : liked) {
+            scores[movie] = 0;
+        }
+        List<Movie> movies = getDataStore().getMovies();
+        Movie[] ranked = new Movie[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = movies.get(position(best.poll()));
+        }
+        CANDIDATES.record(touched);
+        RECOMMEND_TIME.recordSince(start);
+        event.finish(user, touched, ranked.length);
+        return Arrays.asList(ranked);
+    }
+
+    private int[] likedPositions(User user) {
+        int[] ordinals = user.getLikedMovieOrdinals();
+        int[] liked = new int[ordinals.length];
+        int count = 0;
+        for (int ordinal : ordinals) {
+            int position = ordinal < positions.length ? positions[ordinal] : -1;
+            if (position >= 0) {
+                liked[count++] = position;
+            }
+        }
+        // A movie liked twice by one user counts once
+        return Arrays.stream(liked, 0, count).distinct().toArray();
+    }
+
+    // A key is the score, then the reversed position, so larger keys rank first
+    private static long key(int score, int position) {
+        return ((long) score << 32) | (Integer.MAX_VALUE - position);
+    }
+
+    private static int position(long key) {
+        return Integer.MAX_VALUE - (int) (key & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Per-thread working arrays, one slot per catalog position. The scores
+     * are all zeros between uses.
+     */
+    private static final class Scratch {
+        final int[] scores;
+        final int[] touched; // Stack of the positions whose score is non-zero
+
+        Scratch(int catalogSize) {
+            scores = new int[catalogSize];
+            touched = new int[catalogSize];
+        }
+    }
+
+    /**
+     * Min-heap of keys that keeps only the largest {@code limit} offered.
+     */
+    private static final class TopKeys {
+        private final int limit;
+        private long[] keys;
+        private int size;
+
+        TopKeys(int limit, int expected) {
+            this.limit = limit;
+            this.keys = new long[Math.max(1, Math.min(limit, expected))];
+        }
+
+        void offer(long key) {
+            if (size < limit) {
+                if (size == keys.length) {
+                    keys = Arrays.copyOf(keys, (int) Math.min(limit, 2L * size));
+                }
+                keys[size] = key;
+                siftUp(size++);
+            } else if (limit > 0 && key > keys[0]) {
+                keys[0] = key;
+                siftDown(0);
+            }
+        }
+
+        int size() {
+            return size;
+        }
+
+        long poll() {
+            long smallest = keys[0];
+            keys[0] = keys[--size];
+            siftDown(0);
+            return smallest;
+        }
+
+        private void siftUp(int i) {
+            long key = keys[i];
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= key) {
+                    break;
+                }
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            keys[i] = key;
+        }
+
+        private void siftDown(int i) {
+            long key = keys[i];
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (key <= keys[child]) {
+                    break;
+                }
+                keys[i] = keys[child];
+                i = child;
+            }
+            keys[i] = key;
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A data store that can be read by any number of threads while movies and
+ * users are added. Its contents are an immutable version: the movie and user
+ * lists, the ID indexes and the genre posting lists. Readers use the latest
+ * published version and take no locks. {@link #addMovie(Movie)} and
+ * {@link #addUser(User)} copy the current version, add to the copy and then
+ * publish it, one writer at a time. A write therefore costs time in
+ * proportion to the size of the store; only the posting lists of the added
+ * movie's genres are copied.
+ *
+ * <p>Each getter reads the latest version, so two calls can see different
+ * versions. A reader that needs several lookups to agree, such as a catalog
+ * position from {@link #getGenrePostings(int)} and the list from
+ * {@link #getMovies()}, uses one {@link #snapshot()} for all of them.
+ * {@link Recommender} does this by itself. The store itself and its versions
+ * keep no contents in the fields inherited from {@link DataStore}.
+ */
+public class ConcurrentDataStore extends DataStore {
+
+    private volatile Version current;
+
+    /**
+     * Creates an empty data store.
+     */
+    public ConcurrentDataStore() {
+        super(false);
+        current = new Version(List.of(), Map.of(), Set.of(), List.of(), Map.of(), List.of(), 0);
+    }
+
+    /**
+     * Creates a data store with the contents of a validated data store, for
+     * example one built from a {@link ParseResult}. The given store must not
+     * be modified meanwhile; later changes to it are not seen.
+     *
+     * @param initial the data store to copy.
+     */
+    public ConcurrentDataStore(DataStore initial) {
+        super(false);
+        List<Movie> movies = new ArrayList<>(initial.getMovies());
+        Map<String, Movie> moviesById = new HashMap<>();
+        Set<String> movieIdNumbers = new HashSet<>();
+        for (Movie movie : movies) {
+            moviesById.put(movie.getId(), movie);
+            movieIdNumbers.add(Validator.digits(movie.getId()));
+        }
+        List<User> users = new ArrayList<>(initial.getUsers());
+        Map<String, User> usersById = new HashMap<>();
+        for (User user : users) {
+            usersById.put(user.getId(), user);
+        }
+        List<BitSet> genrePostings = new ArrayList<>();
+        for (int genre = 0; genre < SymbolTable.GENRES.size(); genre++) {
+            BitSet postings = initial.getGenrePostings(genre);
+            genrePostings.add(postings.isEmpty() ? null : (BitSet) postings.clone());
+        }
+        current = new Version(Collections.unmodifiableList(movies), moviesById, movieIdNumbers,
+                Collections.unmodifiableList(users), usersById, genrePostings, initial.getVersion());
+    }
+
+    /**
+     * Returns the current version of the data store. It never changes, so all
+     * reads from it are consistent with each other; it cannot be modified.
+     */
+    @Override
+    public DataStore snapshot() {
+        return current;
+    }
+
+    /**
+     * Adds a user after checking that every liked movie exists and that the
+     * user ID is not taken, and publishes the new version.
+     *
+     * @throws DataIntegrityException if the user fails the check.
+     */
+    @Override
+    public synchronized void addUser(User user) throws Exception {
+        Version version = current;
+        for (String id : user.getLikedMovies()) {
+            if (!version.moviesById.containsKey(id)) {
+                throw new DataIntegrityException("This movie id doesn't exist");
+            }
+        }
+        if (version.usersById.containsKey(user.getId())) {
+            throw new DataIntegrityException("Duplicate user ID found: " + user.getId());
+        }
+        List<User> users = new ArrayList<>(version.users.size() + 1);
+        users.addAll(version.users);
+        users.add(user);
+        Map<String, User> usersById = new HashMap<>(version.usersById);
+        usersById.put(user.getId(), user);
+        current = new Version(version.movies, version.moviesById, version.movieIdNumbers,
+                Collections.unmodifiableList(users), usersById, version.genrePostings, version.version);
+    }
+
+    /**
+     * Adds a movie after checking that the numeric part of its ID is unique,
+     * and publishes the new version.
+     *
+     * @throws DataIntegrityException if the numeric part of the ID is not unique.
+     */
+    @Override
+    public synchronized void addMovie(Movie movie) throws DataIntegrityException {
+        Version version = current;
+        String numericPart = Validator.digits(movie.getId());
+        if (version.movieIdNumbers.contains(numericPart)) {
+            throw new DataIntegrityException("Movie Id numbers " + movie.getId() + " aren't unique");
+        }
+        Set<String> movieIdNumbers = new HashSet<>(version.movieIdNumbers);
+        movieIdNumbers.add(numericPart);
+        int position = version.movies.size();
+        List<Movie> movies = new ArrayList<>(position + 1);
+        movies.addAll(version.movies);
+        movies.add(movie);
+        Map<String, Movie> moviesById = new HashMap<>(version.moviesById);
+        moviesById.put(movie.getId(), movie);
+        // Posting lists of other genres are shared with the previous version
+        List<BitSet> genrePostings = new ArrayList<>(version.genrePostings);
+        for (int genre : movie.getGenreOrdinals()) {
+            while (genrePostings.size() <= genre) {
+                genrePostings.add(null);
+            }
+            BitSet postings = genrePostings.get(genre);
+            postings = postings == null ? new BitSet() : (BitSet) postings.clone();
+            postings.set(position);
+            genrePostings.set(genre, postings);
+        }
+        current = new Version(Collections.unmodifiableList(movies), moviesById, movieIdNumbers,
+                version.users, version.usersById, genrePostings, version.version + 1);
+    }
+
+    @Override
+    public long getVersion() {
+        return current.getVersion();
+    }
+
+    @Override
+    public List<User> getUsers() {
+        return current.getUsers();
+    }
+
+    @Override
+    public List<Movie> getMovies() {
+        return current.getMovies();
+    }
+
+    @Override
+    public BitSet getGenrePostings(int genre) {
+        return current.getGenrePostings(genre);
+    }
+
+    @Override
+    public User getUserById(String id) {
+        return current.getUserById(id);
+    }
+
+    @Override
+    public Movie getMovieById(String id) {
+        return current.getMovieById(id);
+    }
+
+    /**
+     * One published version of the data store. Nothing in it is modified
+     * after it is published.
+     */
+    private static final class Version extends DataStore {
+        final List<Movie> movies;
+        final Map<String, Movie> moviesById;
+        final Set<String> movieIdNumbers;
+        final List<User> users;
+        final Map<String, User> usersById;
+        final List<BitSet> genrePostings;
+        final long version;
+
+        Version(List<Movie> movies, Map<String, Movie> moviesById, Set<String> movieIdNumbers,
+                List<User> users, Map<String, User> usersById, List<BitSet> genrePostings, long version) {
+            super(false);
+            this.movies = movies;
+            this.moviesById = moviesById;
+            this.movieIdNumbers = movieIdNumbers;
+            this.users = users;
+            this.usersById = usersById;
+            this.genrePostings = genrePostings;
+            this.version = version;
+        }
+
+        @Override
+        public void addUser(User user) {
+            throw new UnsupportedOperationException("A data store snapshot cannot be modified");
+        }
+
+        @Override
+        public void addMovie(Movie movie) {
+            throw new UnsupportedOperationException("A data store snapshot cannot be modified");
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+
+        @Override
+        public List<User> getUsers() {
+            return users;
+        }
+
+        @Override
+        public List<Movie> getMovies() {
+            return movies;
+        }
+
+        @Override
+        public BitSet getGenrePostings(int genre) {
+            BitSet postings = genre >= 0 && genre < genrePostings.size() ? genrePostings.get(genre) : null;
+            return postings != null ? postings : new BitSet();
+        }
+
+        @Override
+        public User getUserById(String id) {
+            return usersById.get(id);
+        }
+
+        @Override
+        public Movie getMovieById(String id) {
+            return moviesById.get(id);
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.example;
 
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents an in-memory data store for managing users and movies.
@@ -9,12 +14,36 @@ import java.util.List;
  */
 public class DataStore {
 
+    private static final Metrics.Histogram INDEX_TIME = Metrics.GLOBAL.histogram("datastore.index_ns");
+    private static final Metrics.Histogram INTEGRITY_TIME = Metrics.GLOBAL.histogram("datastore.integrity_ns");
+    private static final Metrics.Counter MOVIES = Metrics.GLOBAL.counter("datastore.movies");
+    private static final Metrics.Counter USERS = Metrics.GLOBAL.counter("datastore.users");
+
     private List<User> users;
     private List<Movie> movies;
+    private Map<String, Movie> moviesById; // Index of movies keyed by movie ID
+    private Set<String> movieIdNumbers; // Numeric parts of the IDs added so far
+    private Map<String, User> usersById; // Index of users keyed by user ID
+    private List<BitSet> genrePostings; // Genre ordinal -> positions in movies of the movies with that genre
+    private volatile long version; // Number of movies added, so readers can tell the catalog changed
 
     public DataStore() {
-        users = new java.util.ArrayList<>();
-        movies = new java.util.ArrayList<>();
+        this(true);
+    }
+
+    /**
+     * Constructs an empty data store, or one without contents of its own for
+     * subclasses that override every accessor and mutator.
+     */
+    DataStore(boolean ownContents) {
+        if (ownContents) {
+            users = new java.util.ArrayList<>();
+            movies = new java.util.ArrayList<>();
+            moviesById = new HashMap<>();
+            movieIdNumbers = new HashSet<>();
+            usersById = new HashMap<>();
+            genrePostings = new java.util.ArrayList<>();
+        }
     }
 
     /**
@@ -24,17 +53,27 @@ public class DataStore {
      * @throws Exception
      */
     public DataStore(ParseResult data) throws Exception {
-        movies = new java.util.ArrayList<>();
-        users = new java.util.ArrayList<>(); // Initialize empty, will add users after validation
-        
-        // Validate and add each movie
+        this(); // Initialize empty, will add movies and users after validation
+
+        Events.DataStoreBuild event = new Events.DataStoreBuild();
+        event.begin();
+        // Validate and add each movie, building the ID and genre indexes
+        long start = System.nanoTime();
         for (Movie movie : data.getMovies()) {
             addMovie(movie);
         }
-        // Validate and add each user
+        INDEX_TIME.recordSince(start);
+        // Validate and add each user, checking it against the indexes
+        start = System.nanoTime();
         for (User user : data.getUsers()) {
-            checkIntegrity(user);
-            users.add(user);
+            addUser(user);
+        }
+        INTEGRITY_TIME.recordSince(start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.movies = movies.size();
+            event.users = users.size();
+            event.commit();
         }
     }
 
@@ -51,6 +90,8 @@ public class DataStore {
     public void addUser(User user) throws Exception {
         if (checkIntegrity(user)) {
             this.users.add(user);
+            this.usersById.put(user.getId(), user);
+            USERS.increment();
         } else {
             throw new DataIntegrityException("User data integrity check failed for user ID: " + user.getId());
         }
@@ -58,19 +99,50 @@ public class DataStore {
 
     /**
      * Adds a movie to the data store.
+     * The numeric part of the movie ID must not be shared with any movie
+     * already in the store; this is checked against the set of numeric parts
+     * seen so far rather than by rescanning the stored movies.
      *
      * @param movie the movie object to be added.
+     * @throws DataIntegrityException if the numeric part of the ID is not unique.
      */
     public void addMovie(Movie movie) throws DataIntegrityException {
         String id = movie.getId();
-        String numericPart = id.replaceAll("\\D+", "");
-        for (Movie m : movies) {
-            String otherNumeric = m.getId().replaceAll("\\D+", "");
-            if (numericPart.equals(otherNumeric)) {
-                throw new DataIntegrityException("Movie Id numbers " + movie.getId() + " aren't unique");
-            }
+        String numericPart = Validator.digits(id);
+        if (!movieIdNumbers.add(numericPart)) {
+            throw new DataIntegrityException("Movie Id numbers " + movie.getId() + " aren't unique");
         }
+        int position = this.movies.size();
         this.movies.add(movie);
+        this.moviesById.put(id, movie);
+        for (int genre : movie.getGenreOrdinals()) {
+            while (genrePostings.size() <= genre) {
+                genrePostings.add(null);
+            }
+            if (genrePostings.get(genre) == null) {
+                genrePostings.set(genre, new BitSet());
+            }
+            genrePostings.get(genre).set(position);
+        }
+        version++;
+        MOVIES.increment();
+    }
+
+    /**
+     * Returns a view of the data store whose reads agree with each other, for
+     * a reader that needs several lookups at once. A plain data store is not
+     * safe to read while it is modified, so this is the store itself.
+     */
+    public DataStore snapshot() {
+        return this;
+    }
+
+    /**
+     * Returns a number that changes whenever the movie catalog changes, so
+     * that results derived from the catalog can be recomputed.
+     */
+    public long getVersion() {
+        return version;
     }
 
     public List<User> getUsers() {
@@ -81,35 +153,67 @@ public class DataStore {
         return movies;
     }
 
+    /**
+     * Returns the posting list of a genre: the positions in {@link #getMovies()}
+     * of every movie tagged with that genre. Callers must not modify the
+     * returned set.
+     *
+     * @param genre the genre to look up.
+     * @return the positions of the movies with the genre, empty if there are none.
+     */
+    public BitSet getGenrePostings(String genre) {
+        return getGenrePostings(SymbolTable.GENRES.lookup(genre));
+    }
+
+    /**
+     * Returns the posting list of a genre given its ordinal in
+     * {@link SymbolTable#GENRES}. Callers must not modify the returned set.
+     *
+     * @param genre the genre ordinal to look up.
+     * @return the positions of the movies with the genre, empty if there are none.
+     */
+    public BitSet getGenrePostings(int genre) {
+        BitSet postings = genre >= 0 && genre < genrePostings.size() ? genrePostings.get(genre) : null;
+        return postings != null ? postings : new BitSet();
+    }
+
+    /**
+     * Looks up a user by ID.
+     *
+     * @param id the user ID to look up.
+     * @return the user with the given ID, or {@code null} if none exists.
+     */
+    public User getUserById(String id) {
+        return usersById.get(id);
+    }
+
+    /**
+     * Checks that every liked movie of the user exists and that the user ID is
+     * not taken, using the movie and user indexes so the cost does not grow
+     * with the size of the store.
+     */
     private boolean checkIntegrity(User user) throws Exception {
 
         for (String id : user.getLikedMovies()) {
-            boolean found = false;
-            for (Movie movie : movies) {
-                if (movie.getId().equals(id)) {
-                    found = true;
-                    break;
-                }
-            }
-            if (!found) {
+            if (!moviesById.containsKey(id)) {
                 throw new DataIntegrityException("This movie id doesn't exist");
             }
         }
-        for (User existingUser : users) {
-            if (existingUser.getId().equals(user.getId())) {
-                throw new DataIntegrityException("Duplicate user ID found: " + user.getId());
-            }
+        if (usersById.containsKey(user.getId())) {
+            throw new DataIntegrityException("Duplicate user ID found: " + user.getId());
         }
 
         return true; // Integrity check passed
     }
 
+    /**
+     * Looks up a movie by its ID using the ID index maintained by
+     * {@code addMovie}.
+     *
+     * @param id the movie ID to look up.
+     * @return the movie with the given ID, or {@code null} if none exists.
+     */
     public Movie getMovieById(String id) {
-        for (Movie movie : movies) {
-            if (movie.getId().equals(id)) {
-                return movie; // Return the movie if found
-            }
-        }
-        return null; // Return null if no movie with the given ID is found
+        return moviesById.get(id); // null if no movie with the given ID is found
     }
 }
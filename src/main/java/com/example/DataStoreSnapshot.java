@@ -0,0 +1,238 @@
+package com.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of a validated {@link DataStore}, so that a later run with
+ * the same input files can load the store without parsing and validating the
+ * text again.
+ *
+ * <p>A snapshot starts with a header: a magic number, the format version, a
+ * fingerprint of the input files, the payload length and a CRC32 of the
+ * payload. The payload holds the genre table, then each movie as its title,
+ * ID and genre indexes into that table, then each user as its name, ID and
+ * liked movies as positions in the movie list. Numbers are big-endian ints
+ * and strings are a length followed by UTF-8 bytes.
+ */
+public final class DataStoreSnapshot {
+
+    private static final int MAGIC = 0x4D524453; // "MRDS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 28; // magic, version, fingerprint, payload length, checksum
+
+    private DataStoreSnapshot() {
+    }
+
+    /**
+     * Returns a fingerprint of input files, made from their paths, sizes and
+     * modification times. It changes whenever any of the files is rewritten.
+     */
+    public static long fingerprint(String... files) throws IOException {
+        long hash = 17;
+        for (String file : files) {
+            Path path = Paths.get(file);
+            hash = hash * 31 + path.toAbsolutePath().toString().hashCode();
+            hash = hash * 31 + Files.size(path);
+            hash = hash * 31 + Files.getLastModifiedTime(path).toMillis();
+        }
+        return hash;
+    }
+
+    /**
+     * Writes a snapshot of a data store. The file is written next to the
+     * target and then moved over it, so a reader never sees a partial file.
+     * If writing fails, the partial file is deleted.
+     *
+     * @param store       the data store to save.
+     * @param fingerprint the fingerprint of the files the store was built from.
+     * @param path        the snapshot file.
+     */
+    public static void write(DataStore store, long fingerprint, String path) throws IOException {
+        Path target = Paths.get(path);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.position(HEADER_SIZE);
+                CRC32 checksum = new CRC32();
+                DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                        new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), checksum));
+                writePayload(store, out);
+                out.flush();
+                if (channel.position() - HEADER_SIZE > Integer.MAX_VALUE) {
+                    throw new IOException("Data store is too large for a snapshot");
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putLong(fingerprint)
+                        .putInt((int) (channel.position() - HEADER_SIZE)).putLong(checksum.getValue());
+                header.flip();
+                channel.write(header, 0);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            // Leave no partial snapshot behind
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    private static void writePayload(DataStore store, DataOutputStream out) throws IOException {
+        List<Movie> movies = store.getMovies();
+
+        // Only the genres used by the catalog, numbered in order of first use
+        Map<Integer, Integer> genreIndexes = new HashMap<>();
+        List<String> genres = new ArrayList<>();
+        for (Movie movie : movies) {
+            for (int genre : movie.getGenreOrdinals()) {
+                if (genreIndexes.putIfAbsent(genre, genres.size()) == null) {
+                    genres.add(SymbolTable.GENRES.symbol(genre));
+                }
+            }
+        }
+        out.writeInt(genres.size());
+        for (String genre : genres) {
+            writeString(out, genre);
+        }
+
+        Map<Integer, Integer> positions = new HashMap<>();
+        out.writeInt(movies.size());
+        for (Movie movie : movies) {
+            positions.put(movie.getIdOrdinal(), positions.size());
+            writeString(out, movie.getTitle());
+            writeString(out, movie.getId());
+            out.writeInt(movie.getGenreOrdinals().length);
+            for (int genre : movie.getGenreOrdinals()) {
+                out.writeInt(genreIndexes.get(genre));
+            }
+        }
+
+        List<User> users = store.getUsers();
+        out.writeInt(users.size());
+        for (User user : users) {
+            writeString(out, user.getName());
+            writeString(out, user.getId());
+            out.writeInt(user.getLikedMovieOrdinals().length);
+            for (int liked : user.getLikedMovieOrdinals()) {
+                out.writeInt(positions.get(liked));
+            }
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Loads a data store from a snapshot.
+     *
+     * @param path        the snapshot file.
+     * @param fingerprint the fingerprint of the current input files.
+     * @return the data store, or {@code null} if there is no snapshot or it was
+     *         written from other inputs or by another format version.
+     * @throws IOException if the snapshot is damaged or cannot be read.
+     */
+    public static DataStore read(String path, long fingerprint) throws Exception {
+        Path file = Paths.get(path);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Keep reading until the header is complete
+            }
+            header.flip();
+            if (header.getInt() != MAGIC) {
+                throw new IOException(path + " is not a data store snapshot");
+            }
+            if (header.getInt() != VERSION || header.getLong() != fingerprint) {
+                return null;
+            }
+            int length = header.getInt();
+            long expectedChecksum = header.getLong();
+            if (length < 0 || channel.size() != HEADER_SIZE + (long) length) {
+                throw new IOException("Snapshot " + path + " is truncated");
+            }
+
+            // The payload is checked before any of it is used
+            ByteBuffer payload = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, length);
+            CRC32 checksum = new CRC32();
+            checksum.update(payload.duplicate());
+            if (checksum.getValue() != expectedChecksum) {
+                throw new IOException("Snapshot " + path + " is corrupt: checksum mismatch");
+            }
+            try {
+                return readPayload(payload);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+                throw new IOException("Snapshot " + path + " is corrupt", e);
+            }
+        }
+    }
+
+    private static DataStore readPayload(ByteBuffer in) throws Exception {
+        int[] genres = new int[in.getInt()];
+        for (int i = 0; i < genres.length; i++) {
+            genres[i] = SymbolTable.GENRES.intern(readString(in));
+        }
+
+        DataStore store = new DataStore();
+        int[] movieIds = new int[in.getInt()];
+        for (int i = 0; i < movieIds.length; i++) {
+            String title = readString(in);
+            String id = readString(in);
+            int[] movieGenres = new int[in.getInt()];
+            for (int g = 0; g < movieGenres.length; g++) {
+                movieGenres[g] = genres[in.getInt()];
+            }
+            Movie movie = Movie.restore(title, id, movieGenres);
+            movieIds[i] = movie.getIdOrdinal();
+            store.addMovie(movie);
+        }
+
+        int users = in.getInt();
+        for (int i = 0; i < users; i++) {
+            String name = readString(in);
+            String id = readString(in);
+            int[] liked = new int[in.getInt()];
+            for (int l = 0; l < liked.length; l++) {
+                liked[l] = movieIds[in.getInt()];
+            }
+            store.addUser(User.restore(name, id, liked));
+        }
+        return store;
+    }
+
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getInt()];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
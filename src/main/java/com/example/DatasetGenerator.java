@@ -0,0 +1,233 @@
+package com.example;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Generates synthetic movies and users files for load testing.
+ * The files follow the movies.txt and users.txt formats and pass every
+ * validation rule of {@link Movie}, {@link User} and {@link DataStore}: movie
+ * IDs are the capital letters of the title followed by a unique 3-digit
+ * number, user IDs are 9 digits, and every liked movie ID exists. Output is
+ * fully determined by the settings and the seed.
+ *
+ * <p>Because movie ID numbers have three digits and must be unique, a catalog
+ * holds at most 1000 movies; the number of users is not limited.
+ */
+public class DatasetGenerator {
+
+    /**
+     * Largest catalog the movie ID rules allow.
+     */
+    public static final int MAX_MOVIES = 1000;
+
+    private static final int MAX_GENRES_PER_MOVIE = 3;
+
+    private int movies;
+    private int genres;
+    private int likesPerUser;
+    private long seed;
+    private double[] genreWeights; // Cumulative Zipf weights of the genres, by popularity rank
+
+    /**
+     * Creates a generator.
+     *
+     * @param movies       number of movies in the catalog, at most {@link #MAX_MOVIES}.
+     * @param genres       number of distinct genres.
+     * @param genreSkew    Zipf exponent of genre popularity; 0 makes all genres
+     *                     equally common, larger values concentrate movies in
+     *                     the first genres.
+     * @param likesPerUser number of distinct movies each user likes; at least
+     *                     1, since a user with no liked movies does not parse.
+     * @param seed         random seed; equal settings and seeds give equal files.
+     */
+    public DatasetGenerator(int movies, int genres, double genreSkew, int likesPerUser, long seed) {
+        if (movies < 1 || movies > MAX_MOVIES) {
+            throw new IllegalArgumentException("Movie count must be between 1 and " + MAX_MOVIES + ": " + movies);
+        }
+        if (genres < 1) {
+            throw new IllegalArgumentException("Genre count must be positive: " + genres);
+        }
+        if (genreSkew < 0) {
+            throw new IllegalArgumentException("Genre skew must not be negative: " + genreSkew);
+        }
+        if (likesPerUser < 1 || likesPerUser > movies) {
+            throw new IllegalArgumentException("Likes per user must be between 1 and " + movies + ": " + likesPerUser);
+        }
+        this.movies = movies;
+        this.genres = genres;
+        this.likesPerUser = likesPerUser;
+        this.seed = seed;
+        this.genreWeights = new double[genres];
+        double total = 0;
+        for (int rank = 0; rank < genres; rank++) {
+            total += 1 / Math.pow(rank + 1, genreSkew);
+            genreWeights[rank] = total;
+        }
+    }
+
+    /**
+     * Writes the movies file.
+     */
+    public void writeMovies(Writer out) throws IOException {
+        Random random = new Random(seed);
+        for (int i = 0; i < movies; i++) {
+            String name = name(i);
+            out.write("Movie " + name + ",M" + name.charAt(0) + digits(i, 3) + "\n");
+            // One to three distinct genres, picked by popularity without replacement
+            int count = 1 + random.nextInt(Math.min(MAX_GENRES_PER_MOVIE, genres));
+            int[] picked = new int[count];
+            for (int g = 0; g < count; g++) {
+                picked[g] = sampleGenre(random, picked, g);
+                out.write((g > 0 ? "," : "") + genreName(picked[g]));
+            }
+            out.write("\n");
+        }
+    }
+
+    /**
+     * Writes a users file with the given number of users, whose likes refer
+     * to the movies written by {@link #writeMovies(Writer)}.
+     */
+    public void writeUsers(Writer out, int users) throws IOException {
+        if (users < 0 || users > 999_999_999) {
+            throw new IllegalArgumentException("User count must be between 0 and 999999999: " + users);
+        }
+        Random random = new Random(seed + 1);
+        int[] catalog = new int[movies];
+        for (int i = 0; i < movies; i++) {
+            catalog[i] = i;
+        }
+        for (int u = 0; u < users; u++) {
+            out.write("User " + name(u) + "," + digits(u, 9) + "\n");
+            // Partial Fisher-Yates shuffle picks distinct liked movies
+            StringBuilder likes = new StringBuilder();
+            for (int l = 0; l < likesPerUser; l++) {
+                int j = l + random.nextInt(movies - l);
+                int movie = catalog[j];
+                catalog[j] = catalog[l];
+                catalog[l] = movie;
+                if (l > 0) {
+                    likes.append(',');
+                }
+                likes.append('M').append(name(movie).charAt(0)).append(digits(movie, 3));
+            }
+            out.write(likes + "\n");
+        }
+    }
+
+    /**
+     * Picks a genre by popularity among those not in the first {@code count}
+     * entries of {@code picked}. The target is drawn from the total weight
+     * less that of the picked genres, then moved past each picked genre that
+     * starts at or before it, so every draw succeeds however skewed the
+     * weights are.
+     */
+    private int sampleGenre(Random random, int[] picked, int count) {
+        int[] skipped = Arrays.copyOf(picked, count);
+        Arrays.sort(skipped);
+        double remaining = genreWeights[genres - 1];
+        for (int genre : skipped) {
+            remaining -= weight(genre);
+        }
+        double target = random.nextDouble() * Math.max(remaining, 0);
+        for (int genre : skipped) {
+            if (genreWeights[genre] - weight(genre) > target) {
+                break;
+            }
+            target += weight(genre);
+        }
+        int low = 0;
+        int high = genres - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (genreWeights[mid] <= target) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        // Rounding can still land on a picked genre when the remaining weight
+        // is negligible; the most popular genre not yet picked is used then
+        if (isPicked(skipped, low)) {
+            low = 0;
+            while (isPicked(skipped, low)) {
+                low++;
+            }
+        }
+        return low;
+    }
+
+    private double weight(int genre) {
+        return genre == 0 ? genreWeights[0] : genreWeights[genre] - genreWeights[genre - 1];
+    }
+
+    private static boolean isPicked(int[] picked, int genre) {
+        for (int p : picked) {
+            if (p == genre) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Zero-padded decimal, cheaper than String.format for millions of users
+    private static String digits(int value, int width) {
+        char[] digits = new char[width];
+        for (int i = width - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits);
+    }
+
+    private static String genreName(int genre) {
+        return "Genre" + name(genre).toLowerCase();
+    }
+
+    // Letters-only name for a number, one capital then lowercase: 0 -> "A", 26 -> "Ba"
+    private static String name(int n) {
+        StringBuilder name = new StringBuilder();
+        do {
+            name.append((char) ('a' + n % 26));
+            n /= 26;
+        } while (n > 0);
+        name.reverse();
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+        return name.toString();
+    }
+
+    /**
+     * Usage: {@code DatasetGenerator <moviesFile> <usersFile> <users> [movies]
+     * [genres] [genreSkew] [likesPerUser] [seed]}. Defaults are 1000 movies,
+     * 20 genres, skew 1.0, 5 likes per user and seed 42.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: DatasetGenerator <moviesFile> <usersFile> <users>"
+                    + " [movies] [genres] [genreSkew] [likesPerUser] [seed]");
+            System.exit(1);
+        }
+        int users = Integer.parseInt(args[2]);
+        DatasetGenerator generator = new DatasetGenerator(
+                args.length > 3 ? Integer.parseInt(args[3]) : MAX_MOVIES,
+                args.length > 4 ? Integer.parseInt(args[4]) : 20,
+                args.length > 5 ? Double.parseDouble(args[5]) : 1.0,
+                args.length > 6 ? Integer.parseInt(args[6]) : 5,
+                args.length > 7 ? Long.parseLong(args[7]) : 42);
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            generator.writeMovies(out);
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+            generator.writeUsers(out, users);
+        }
+        System.out.println("Wrote " + generator.movies + " movies to " + args[0]
+                + " and " + users + " users to " + args[1]);
+    }
+}
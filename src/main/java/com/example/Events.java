@@ -0,0 +1,93 @@
+package com.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Java Flight Recorder events for the pipeline stages. They cost next to
+ * nothing unless a recording that enables them is running, for example one
+ * started with {@code -XX:StartFlightRecording}.
+ */
+final class Events {
+
+    private static final String CATEGORY = "Movie Recommender";
+
+    private Events() {
+    }
+
+    @Name("com.example.ParseFile")
+    @Label("Parse Input File")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class ParseFile extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Records")
+        int records;
+    }
+
+    @Name("com.example.DataStoreBuild")
+    @Label("Build Data Store")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class DataStoreBuild extends Event {
+        @Label("Movies")
+        int movies;
+
+        @Label("Users")
+        int users;
+    }
+
+    @Name("com.example.Recommend")
+    @Label("Recommend Movies")
+    @Description("One recommendation call; calls shorter than the threshold are not recorded")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    @Threshold("1 ms")
+    static class Recommend extends Event {
+        @Label("User ID")
+        String userId;
+
+        @Label("Liked Movies")
+        int liked;
+
+        @Label("Candidates")
+        @Description("Movies sharing a genre with the liked movies, the liked movies included")
+        int candidates;
+
+        @Label("Recommendations")
+        int results;
+
+        /**
+         * Ends the event and commits it with the call's numbers if it is
+         * recorded.
+         */
+        void finish(User user, int candidates, int results) {
+            end();
+            if (shouldCommit()) {
+                this.userId = user.getId();
+                this.liked = user.getLikedMovieOrdinals().length;
+                this.candidates = candidates;
+                this.results = results;
+                commit();
+            }
+        }
+    }
+
+    @Name("com.example.WriterFlush")
+    @Label("Write Recommendations Buffer")
+    @Category(CATEGORY)
+    @StackTrace(false)
+    static class WriterFlush extends Event {
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+    }
+}
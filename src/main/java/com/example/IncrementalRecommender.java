@@ -0,0 +1,160 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Recommends like {@link Recommender#recommendMovies(User)}, but keeps the
+ * liked genres and candidate movies of every user it has seen. When a user
+ * likes a movie through {@link #addLike(User, String)}, only the posting lists
+ * of the genres the user did not like before are merged into their
+ * candidates, instead of recomputing them from all their liked movies.
+ *
+ * <p>The state of a user is built on their first recommendation and rebuilt
+ * when a movie is added to the data store. Likes added directly with
+ * {@link User#addLikedMovie(String)} are not seen until the state is rebuilt.
+ * The state of every user seen is kept for the life of the recommender. It
+ * can serve several threads at once; calls for the same user are serialized.
+ * {@link #recommendTopMovies(User, int)} is inherited and does not use the
+ * kept state.
+ */
+public class IncrementalRecommender extends Recommender {
+
+    private Map<String, Profile> profiles = new ConcurrentHashMap<>(); // User ID -> state
+
+    /**
+     * The liked movies, liked genres and candidate movies of one user, as of
+     * a version of the data store.
+     */
+    private static class Profile {
+        DataStore data; // The data store as of the version, see DataStore.snapshot
+        long version;
+        BitSet likedMovies = new BitSet(); // Movie ID ordinals
+        long[] likedGenres = new long[0];
+        BitSet candidates = new BitSet(); // Catalog positions, including the liked movies
+    }
+
+    /**
+     * Constructs a new IncrementalRecommender instance.
+     *
+     * @param data The data store to use for generating recommendations.
+     */
+    public IncrementalRecommender(DataStore data) {
+        super(data);
+    }
+
+    /**
+     * Generates movie recommendations for a specific user in catalog order,
+     * from the user's kept state.
+     *
+     * @param user The user for whom to generate recommendations.
+     */
+    @Override
+    public List<Movie> recommendMovies(User user) {
+        Events.Recommend event = new Events.Recommend();
+        event.begin();
+        long start = System.nanoTime();
+        List<Movie> recommendations;
+        int candidateCount;
+        Profile profile = profile(user);
+        synchronized (profile) {
+            recommendations = recommendations(profile);
+            candidateCount = profile.candidates.cardinality();
+        }
+        CANDIDATES.record(candidateCount);
+        RECOMMEND_TIME.recordSince(start);
+        event.finish(user, candidateCount, recommendations.size());
+        return recommendations;
+    }
+
+    /**
+     * Adds a liked movie to the user and updates their kept state with the
+     * movie's genres. Liking a movie the user already likes changes nothing.
+     *
+     * @param user    The user who likes the movie.
+     * @param movieId The ID of the liked movie.
+     * @return the user's recommendations after the like, in catalog order.
+     * @throws DataIntegrityException if no movie has the given ID.
+     */
+    public List<Movie> addLike(User user, String movieId) throws DataIntegrityException {
+        Profile profile = profile(user);
+        synchronized (profile) {
+            Movie movie = profile.data.getMovieById(movieId);
+            if (movie == null) {
+                throw new DataIntegrityException("This movie id doesn't exist");
+            }
+            if (profile.likedMovies.get(movie.getIdOrdinal())) {
+                // Already liked, so nothing changes
+                return recommendations(profile);
+            }
+            user.addLikedMovie(movieId);
+            profile.likedMovies.set(movie.getIdOrdinal());
+            long[] genres = movie.getGenreMask();
+            if (profile.likedGenres.length < genres.length) {
+                profile.likedGenres = Arrays.copyOf(profile.likedGenres, genres.length);
+            }
+            // Merge only the postings of genres that are new to the user
+            for (int word = 0; word < genres.length; word++) {
+                long added = genres[word] & ~profile.likedGenres[word];
+                for (long bits = added; bits != 0; bits &= bits - 1) {
+                    profile.candidates.or(
+                            profile.data.getGenrePostings((word << 6) + Long.numberOfTrailingZeros(bits)));
+                }
+                profile.likedGenres[word] |= added;
+            }
+            return recommendations(profile);
+        }
+    }
+
+    /**
+     * Returns the kept state of the user, building it from the user's liked
+     * movies if there is none or the catalog changed since it was built.
+     */
+    private Profile profile(User user) {
+        DataStore data = getDataStore().snapshot();
+        long version = data.getVersion();
+        Profile profile = profiles.get(user.getId());
+        if (profile != null && profile.version == version) {
+            return profile;
+        }
+        Profile built = new Profile();
+        built.data = data;
+        built.version = version;
+        for (String id : user.getLikedMovies()) {
+            Movie movie = data.getMovieById(id);
+            built.likedMovies.set(movie.getIdOrdinal());
+            long[] genres = movie.getGenreMask();
+            if (built.likedGenres.length < genres.length) {
+                built.likedGenres = Arrays.copyOf(built.likedGenres, genres.length);
+            }
+            for (int word = 0; word < genres.length; word++) {
+                built.likedGenres[word] |= genres[word];
+            }
+        }
+        for (int word = 0; word < built.likedGenres.length; word++) {
+            for (long bits = built.likedGenres[word]; bits != 0; bits &= bits - 1) {
+                built.candidates.or(data.getGenrePostings((word << 6) + Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        // Keep a newer state if another thread built or updated one meanwhile
+        return profiles.merge(user.getId(), built,
+                (current, rebuilt) -> current.version >= rebuilt.version ? current : rebuilt);
+    }
+
+    // Caller holds the profile's lock
+    private List<Movie> recommendations(Profile profile) {
+        List<Movie> movies = profile.data.getMovies();
+        List<Movie> recommendations = new ArrayList<>();
+        BitSet candidates = profile.candidates;
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Movie movie = movies.get(i);
+            if (profile.likedMovies.get(movie.getIdOrdinal())) continue;
+            recommendations.add(movie);
+        }
+        return recommendations;
+    }
+}
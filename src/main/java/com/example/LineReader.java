@@ -0,0 +1,306 @@
+package com.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads text one line at a time with the same line semantics as
+ * {@code text.split("\n")}: lines are separated by {@code '\n'} only, any
+ * {@code '\r'} is kept, trailing empty lines are dropped and an empty input
+ * reads as a single empty line. Only the current line is held in memory, so
+ * inputs can be much larger than the heap.
+ *
+ * <p>A reader made by {@link #map(Path, Charset)} scans the bytes of a
+ * memory-mapped file in place and decodes each line on its own, so the file
+ * is neither copied into the heap nor decoded as a whole.
+ */
+public class LineReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 8192;
+    // Mapped files are read through windows of at most this many bytes
+    private static final int WINDOW_SIZE = 1 << 30;
+
+    private Reader in;
+    private char[] buffer;
+    private FileChannel channel;
+    private Charset charset;
+    private long rangeStart;
+    private long rangeEnd; // Offset the mapped lines end at
+    private boolean keepTrailingEmptyLines; // Whether the range ends before the file does
+    private ByteBuffer window;
+    private long windowStart;
+    private byte[] lineBytes = new byte[256];
+    private int position;
+    private int limit;
+    private boolean sawInput; // Whether any character has been read
+    private int pendingEmptyLines; // Empty lines read but not returned yet
+    private String pendingLine; // Non-empty line that follows the pending empty lines
+    private int lineNumber;
+
+    public LineReader(Reader in) {
+        this.in = in;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+
+    private LineReader(FileChannel channel, Charset charset, long start, long end) throws IOException {
+        this.channel = channel;
+        this.charset = charset;
+        this.rangeStart = start;
+        this.rangeEnd = end;
+        this.keepTrailingEmptyLines = end < channel.size();
+        this.sawInput = end > start;
+    }
+
+    /**
+     * Opens a reader over a memory-mapped file.
+     *
+     * @param file    the file to read.
+     * @param charset the file encoding; it must encode {@code '\n'} as the
+     *                single byte 10 and never use that byte otherwise.
+     * @throws IllegalArgumentException if the charset is not UTF-8, US-ASCII
+     *                                  or ISO-8859-1.
+     * @throws IOException              if the file cannot be opened.
+     */
+    public static LineReader map(Path file, Charset charset) throws IOException {
+        return map(file, charset, 0, -1);
+    }
+
+    /**
+     * Opens a reader over the lines of a memory-mapped file that lie in the
+     * byte range {@code [start, end)}. {@code start} must be the start of a
+     * line. Unless the range runs to the end of the file, empty lines at its
+     * end are read like any other line, since more lines follow them.
+     *
+     * @param end the end of the range, or -1 for the end of the file.
+     */
+    static LineReader map(Path file, Charset charset, long start, long end) throws IOException {
+        if (!isAsciiCompatible(charset)) {
+            throw new IllegalArgumentException("Cannot scan " + charset + " bytes for line breaks");
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new LineReader(channel, charset, start, end < 0 ? channel.size() : end);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the offset just past the first {@code '\n'} at or after
+     * {@code from}, or {@code to} if there is none before it.
+     */
+    static long nextLineStart(FileChannel channel, long from, long to) throws IOException {
+        for (long windowStart = from; windowStart < to; windowStart += WINDOW_SIZE) {
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                    Math.min(WINDOW_SIZE, to - windowStart));
+            for (int i = 0; i < bytes.limit(); i++) {
+                if (bytes.get(i) == '\n') {
+                    return windowStart + i + 1;
+                }
+            }
+        }
+        return to;
+    }
+
+    /**
+     * Counts the {@code '\n'} bytes of a file in {@code [from, to)}.
+     */
+    static long countNewlines(FileChannel channel, long from, long to) throws IOException {
+        long count = 0;
+        for (long windowStart = from; windowStart < to; windowStart += WINDOW_SIZE) {
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, windowStart,
+                    Math.min(WINDOW_SIZE, to - windowStart));
+            for (int i = 0; i < bytes.limit(); i++) {
+                if (bytes.get(i) == '\n') {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the size of a file without the {@code '\n'} bytes at its end,
+     * which only make up empty lines that are dropped.
+     */
+    static long contentEnd(FileChannel channel) throws IOException {
+        long end = channel.size();
+        while (end > 0) {
+            long start = Math.max(0, end - WINDOW_SIZE);
+            ByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+            for (int i = bytes.limit() - 1; i >= 0; i--) {
+                if (bytes.get(i) != '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    /**
+     * Whether {@link #map(Path, Charset)} can read files in the charset.
+     */
+    public static boolean isAsciiCompatible(Charset charset) {
+        return charset.equals(StandardCharsets.UTF_8)
+                || charset.equals(StandardCharsets.US_ASCII)
+                || charset.equals(StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Returns the next line, without its terminating {@code '\n'}.
+     *
+     * @return the next line, or {@code null} at the end of the input.
+     * @throws IOException if the underlying reader fails.
+     */
+    public String readLine() throws IOException {
+        if (pendingEmptyLines > 0) {
+            pendingEmptyLines--;
+            lineNumber++;
+            return "";
+        }
+        if (pendingLine != null) {
+            String line = pendingLine;
+            pendingLine = null;
+            lineNumber++;
+            return line;
+        }
+        String raw;
+        while ((raw = readRawLine()) != null) {
+            if (!raw.isEmpty()) {
+                lineNumber++;
+                if (pendingEmptyLines > 0) {
+                    // Empty lines count only once something follows them
+                    pendingLine = raw;
+                    pendingEmptyLines--;
+                    return "";
+                }
+                return raw;
+            }
+            pendingEmptyLines++;
+        }
+        if (keepTrailingEmptyLines && pendingEmptyLines > 0) {
+            pendingEmptyLines--;
+            lineNumber++;
+            return "";
+        }
+        // Trailing empty lines are dropped, but an empty input is one empty line
+        pendingEmptyLines = 0;
+        if (!sawInput) {
+            sawInput = true;
+            lineNumber++;
+            return "";
+        }
+        return null;
+    }
+
+    /**
+     * Returns the 1-based number of the line last returned by
+     * {@link #readLine()}, or 0 before the first line.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        } else {
+            in.close();
+        }
+    }
+
+    private String readRawLine() throws IOException {
+        if (channel != null) {
+            return readMappedLine();
+        }
+        StringBuilder line = null;
+        while (true) {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return line != null && line.length() > 0 ? line.toString() : null;
+                }
+                sawInput = true;
+            }
+            int start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            if (position < limit) {
+                // Found the end of the line; skip past the '\n'
+                String segment = new String(buffer, start, position - start);
+                position++;
+                return line == null ? segment : line.append(segment).toString();
+            }
+            if (line == null) {
+                line = new StringBuilder();
+            }
+            line.append(buffer, start, position - start);
+        }
+    }
+
+    private String readMappedLine() throws IOException {
+        while (true) {
+            if (window == null || !window.hasRemaining()) {
+                long next = window == null ? rangeStart : windowStart + window.limit();
+                if (next >= rangeEnd) {
+                    return null;
+                }
+                mapWindow(next);
+            }
+            int start = window.position();
+            int limit = window.limit();
+            int end = start;
+            boolean ascii = true;
+            byte b;
+            while (end < limit && (b = window.get(end)) != '\n') {
+                ascii &= b >= 0;
+                end++;
+            }
+            if (end < limit) {
+                window.position(end + 1);
+                return decode(start, end, ascii);
+            }
+            if (windowStart + limit == rangeEnd) {
+                // Last line, with no '\n' after it
+                window.position(limit);
+                return start == limit ? null : decode(start, limit, ascii);
+            }
+            if (start == 0) {
+                throw new IOException("Line at offset " + windowStart + " does not fit in " + WINDOW_SIZE + " bytes");
+            }
+            // The line runs past this window; map the next one from its start
+            mapWindow(windowStart + start);
+        }
+    }
+
+    private void mapWindow(long position) throws IOException {
+        window = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_SIZE, rangeEnd - position));
+        windowStart = position;
+    }
+
+    private String decode(int start, int end, boolean ascii) {
+        int length = end - start;
+        if (!ascii) {
+            // Only lines with multi-byte characters go through the decoder
+            return charset.decode(window.slice(start, length)).toString();
+        }
+        if (lineBytes.length < length) {
+            lineBytes = new byte[Math.max(length, lineBytes.length * 2)];
+        }
+        window.get(start, lineBytes, 0, length);
+        return new String(lineBytes, 0, length, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -1,45 +1,193 @@
 package com.example;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 public class Main {
+    /**
+     * Number of users whose recommendations can be computed ahead of the
+     * writer, bounding how many results are held in memory at once.
+     */
+    private static final int QUEUE_CAPACITY = 4096;
+
+    /**
+     * Number of distinct liked genre sets whose candidate movies the
+     * recommender remembers.
+     */
+    private static final int CANDIDATE_CACHE_SIZE = 1024;
+
+    private static final int PROGRESS_INTERVAL_SECONDS = 5;
+
+    private static final Metrics.Histogram LOAD_TIME = Metrics.GLOBAL.histogram("main.load_ns");
+    private static final Metrics.Histogram RECOMMEND_TIME = Metrics.GLOBAL.histogram("main.recommend_ns");
+
+    private int threads;
+    private String snapshotPath; // Binary snapshot of the data store, or null to always parse
+    private int topK; // Number of ranked recommendations per user, or 0 for every match
+    private int neighbors; // Neighbors per movie of the co-occurrence recommender, or 0 to match genres
+    private ProgressReporter.Level progressLevel = ProgressReporter.Level.NORMAL;
+    private String metricsPath; // File the metrics summary is written to, or null for the console
+
+    /**
+     * Creates a Main that generates recommendations on the calling thread.
+     */
+    public Main() {
+        this(1);
+    }
+
+    /**
+     * Creates a Main that generates recommendations on a pool of worker
+     * threads. Output order is the same as with a single thread.
+     *
+     * @param threads the number of worker threads; 1 runs on the calling thread.
+     */
+    public Main(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
     public static void main(String[] args) {
         System.out.println("Welcome to the Movie Recommender System!");
-        new Main().run(
+        int threads = Integer.getInteger("recommender.threads", Runtime.getRuntime().availableProcessors());
+        int topK = Integer.getInteger("recommender.topK", 0);
+        int neighbors = Integer.getInteger("recommender.neighbors", 0);
+        Main app = new Main(threads);
+        app.setSnapshotPath(System.getProperty("recommender.snapshot"));
+        app.setTopK(topK);
+        app.setNeighbors(neighbors);
+        String progress = System.getProperty("recommender.progress");
+        if (progress != null) {
+            try {
+                app.setProgressLevel(ProgressReporter.Level.valueOf(progress.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                System.err.println("Unknown progress level " + progress + ", expected one of "
+                        + Arrays.toString(ProgressReporter.Level.values()).toLowerCase(Locale.ROOT));
+                System.exit(1);
+            }
+        }
+        app.setMetricsPath(System.getProperty("recommender.metrics"));
+        Integer port = Integer.getInteger("recommender.server.port");
+        if (port != null) {
+            try {
+                app.serve("users.txt", "movies.txt", port);
+            } catch (Exception e) {
+                System.err.println("Error starting server: " + e.getMessage());
+                System.exit(1);
+            }
+            return;
+        }
+        app.run(
                 "users.txt",
                 "movies.txt",
                 "recommendations.txt");
     }
 
+    /**
+     * Sets the file of a binary snapshot of the validated data store. A run
+     * whose input files have not changed since the snapshot was written loads
+     * it instead of parsing the files; any other run parses the files and
+     * rewrites the snapshot. {@code null}, the default, always parses.
+     */
+    public void setSnapshotPath(String snapshotPath) {
+        this.snapshotPath = snapshotPath;
+    }
+
+    /**
+     * Sets the number of ranked recommendations written per user, as chosen
+     * by {@link Recommender#recommendTopMovies(User, int)}; 0, the default,
+     * writes every recommendation.
+     *
+     * @throws IllegalArgumentException if {@code topK} is negative.
+     */
+    public void setTopK(int topK) {
+        if (topK < 0) {
+            throw new IllegalArgumentException("Number of recommendations must not be negative: " + topK);
+        }
+        this.topK = topK;
+    }
+
+    /**
+     * Sets the number of most co-liked movies kept per movie by a
+     * {@link CoOccurrenceRecommender}, which then recommends instead of
+     * matching genres; 0, the default, recommends by genre.
+     *
+     * @throws IllegalArgumentException if {@code neighbors} is negative.
+     */
+    public void setNeighbors(int neighbors) {
+        if (neighbors < 0) {
+            throw new IllegalArgumentException("Neighbor count must not be negative: " + neighbors);
+        }
+        this.neighbors = neighbors;
+    }
+
+    /**
+     * Sets how much progress is printed while recommendations are generated:
+     * nothing, a summary every few seconds (the default), or also a line per
+     * user.
+     */
+    public void setProgressLevel(ProgressReporter.Level progressLevel) {
+        this.progressLevel = progressLevel;
+    }
+
+    /**
+     * Sets the file that the {@link Metrics} summary of each run is written
+     * to as JSON; {@code null}, the default, prints it to the console.
+     */
+    public void setMetricsPath(String metricsPath) {
+        this.metricsPath = metricsPath;
+    }
+
     public void run(String usersFilePath, String moviesFilePath, String outputFilePath) {
         try {
+            // Count this run only
+            Metrics.GLOBAL.reset();
+            long start = System.nanoTime();
+
             // Clear the output file if it exists
             java.nio.file.Files.deleteIfExists(java.nio.file.Paths.get(outputFilePath));
 
-            // Parse input files
-            System.out.println("Parsing movies and users data...");
-            Parser parser = createParser(usersFilePath, moviesFilePath);
-            ParseResult parseResult = parser.parse();
+            DataStore dataStore = loadDataStore(usersFilePath, moviesFilePath);
 
-            // Create DataStore with parsed data
-            System.out.println("Creating data store...");
-            DataStore dataStore = createDataStore(parseResult);
+            LOAD_TIME.recordSince(start);
+            start = System.nanoTime();
 
             // Create Recommender and Writer
             Recommender recommender = createRecommender(dataStore);
-            RecommendationWriter writer = createWriter(outputFilePath);
+            try (RecommendationWriter writer = createWriter(outputFilePath)) {
+                // Keep the output file open for the whole run
+                writer.open();
 
-            // Generate and write recommendations for each user
-            System.out.println("Generating recommendations...");
-            List<User> users = dataStore.getUsers();
-
-            for (User user : users) {
-                List<Movie> recommendations = recommender.recommendMovies(user);
-                writer.writeRecommendations(user, recommendations);
-                System.out.println("Generated recommendations for user: " + user.getName());
+                // Generate recommendations while a separate thread writes them, in input order
+                System.out.println("Generating recommendations...");
+                List<User> users = dataStore.getUsers();
+                ProgressReporter progress = createProgressReporter(users.size());
+                ExecutorService pool = threads == 1 ? null : Executors.newFixedThreadPool(threads);
+                try (AsyncRecommendationWriter output = new AsyncRecommendationWriter(writer, QUEUE_CAPACITY,
+                        progress::userDone)) {
+                    for (User user : users) {
+                        if (pool == null) {
+                            output.write(user, recommend(recommender, user));
+                        } else {
+                            output.write(user, pool.submit(() -> recommend(recommender, user)));
+                        }
+                    }
+                } finally {
+                    if (pool != null) {
+                        pool.shutdownNow();
+                    }
+                }
+                progress.finish();
             }
 
+            RECOMMEND_TIME.recordSince(start);
             System.out.println("Recommendations successfully written to " + outputFilePath);
+            writeMetrics();
 
         } catch (java.io.IOException e) {
             System.err.println("Error reading input files: " + e.getMessage());
@@ -57,8 +205,98 @@ public class Main {
         }
     }
 
+    /**
+     * Loads the data store once and starts answering recommendation queries
+     * over HTTP on the loopback address. The server keeps running until it is
+     * stopped.
+     *
+     * @param port the port to listen on, or 0 for any free port.
+     * @return the running server.
+     */
+    public RecommendationServer serve(String usersFilePath, String moviesFilePath, int port) throws Exception {
+        DataStore dataStore = loadDataStore(usersFilePath, moviesFilePath);
+        RecommendationServer server = new RecommendationServer(dataStore, createRecommender(dataStore), topK);
+        server.start(port);
+        System.out.println("Serving recommendations at http://localhost:" + server.getPort()
+                + RecommendationServer.PATH + "<userId>");
+        return server;
+    }
+
+    /**
+     * Loads the data store from the snapshot, or parses the input files and
+     * writes a new snapshot when there is no current one.
+     */
+    private DataStore loadDataStore(String usersFilePath, String moviesFilePath) throws Exception {
+        DataStore dataStore = null;
+        long fingerprint = 0;
+        if (snapshotPath != null) {
+            fingerprint = DataStoreSnapshot.fingerprint(usersFilePath, moviesFilePath);
+            dataStore = loadSnapshot(fingerprint);
+        }
+
+        if (dataStore == null) {
+            // Parse input files
+            System.out.println("Parsing movies and users data...");
+            Parser parser = createParser(usersFilePath, moviesFilePath);
+            ParseResult parseResult = parser.parse();
+
+            // Create DataStore with parsed data
+            System.out.println("Creating data store...");
+            dataStore = createDataStore(parseResult);
+
+            if (snapshotPath != null) {
+                writeSnapshot(dataStore, fingerprint);
+            }
+        }
+
+        return dataStore;
+    }
+
+    private List<Movie> recommend(Recommender recommender, User user) {
+        return topK > 0 ? recommender.recommendTopMovies(user, topK) : recommender.recommendMovies(user);
+    }
+
+    private void writeMetrics() throws java.io.IOException {
+        String json = Metrics.GLOBAL.toJson();
+        if (metricsPath == null) {
+            System.out.println("Metrics: " + json);
+        } else {
+            java.nio.file.Files.writeString(java.nio.file.Paths.get(metricsPath), json + System.lineSeparator());
+        }
+    }
+
+    /**
+     * Loads the data store snapshot if it was written from the current inputs.
+     * A damaged snapshot is reported and then ignored, so the inputs are
+     * parsed again.
+     */
+    private DataStore loadSnapshot(long fingerprint) {
+        try {
+            DataStore dataStore = DataStoreSnapshot.read(snapshotPath, fingerprint);
+            if (dataStore != null) {
+                System.out.println("Loaded data store from snapshot " + snapshotPath);
+            }
+            return dataStore;
+        } catch (Exception e) {
+            System.err.println("Ignoring snapshot " + snapshotPath + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the data store snapshot for the next run. A snapshot that cannot
+     * be written is reported and then skipped, since this run has its data.
+     */
+    private void writeSnapshot(DataStore dataStore, long fingerprint) {
+        try {
+            DataStoreSnapshot.write(dataStore, fingerprint, snapshotPath);
+        } catch (Exception e) {
+            System.err.println("Not writing snapshot " + snapshotPath + ": " + e.getMessage());
+        }
+    }
+
     public Parser createParser(String users, String movies) throws java.io.IOException {
-        return new Parser(users, movies);
+        return new Parser(users, movies, threads);
     }
 
     public DataStore createDataStore(ParseResult result) throws Exception {
@@ -66,7 +304,14 @@ public class Main {
     }
 
     public Recommender createRecommender(DataStore dataStore) {
-        return new Recommender(dataStore);
+        if (neighbors > 0) {
+            return new CoOccurrenceRecommender(dataStore, neighbors);
+        }
+        return new Recommender(dataStore, CANDIDATE_CACHE_SIZE);
+    }
+
+    public ProgressReporter createProgressReporter(int users) {
+        return new ProgressReporter(progressLevel, users, PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS, System.out);
     }
 
     public RecommendationWriter createWriter(String path) {
@@ -0,0 +1,179 @@
+package com.example;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Named counters and histograms that the pipeline stages update while they
+ * run, for finding where a run spends its time. Timers are histograms of
+ * nanoseconds whose names end in {@code _ns}. Updating a metric is cheap and
+ * thread-safe, so the stages keep their metrics in static fields and update
+ * them on every call.
+ */
+public final class Metrics {
+
+    /**
+     * Shared registry that the pipeline stages report to.
+     */
+    public static final Metrics GLOBAL = new Metrics();
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the counter with the given name, creating it if needed.
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    /**
+     * Returns the histogram with the given name, creating it if needed.
+     */
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, n -> new Histogram());
+    }
+
+    /**
+     * Sets every metric back to zero, keeping the metrics themselves.
+     */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        histograms.values().forEach(Histogram::reset);
+    }
+
+    /**
+     * Returns every metric as a JSON object, with names in sorted order:
+     * {@code {"counters":{name:value,...},"histograms":{name:{"count":..,
+     * "sum":..,"max":..,"p50":..,"p90":..,"p99":..},...}}}.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"counters\":{");
+        String separator = "";
+        for (Map.Entry<String, Counter> counter : new TreeMap<>(counters).entrySet()) {
+            json.append(separator).append('"').append(counter.getKey()).append("\":").append(counter.getValue().get());
+            separator = ",";
+        }
+        json.append("},\"histograms\":{");
+        separator = "";
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            json.append(separator).append('"').append(entry.getKey()).append("\":{")
+                    .append("\"count\":").append(histogram.getCount())
+                    .append(",\"sum\":").append(histogram.getSum())
+                    .append(",\"max\":").append(histogram.getMax())
+                    .append(",\"p50\":").append(histogram.percentile(0.5))
+                    .append(",\"p90\":").append(histogram.percentile(0.9))
+                    .append(",\"p99\":").append(histogram.percentile(0.99))
+                    .append('}');
+            separator = ",";
+        }
+        return json.append("}}").toString();
+    }
+
+    /**
+     * A count that only goes up.
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        private void reset() {
+            value.reset();
+        }
+    }
+
+    /**
+     * Distribution of non-negative values, kept as counts per power-of-two
+     * bucket: bucket {@code b} holds values below {@code 2^b} and at least
+     * {@code 2^(b-1)}. Percentiles are therefore accurate to a factor of two.
+     * Like {@link Counter}, every part is striped, so threads recording at the
+     * same time do not contend on one cache line.
+     */
+    public static final class Histogram {
+        private final LongAdder[] buckets = new LongAdder[64];
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        public Histogram() {
+            for (int b = 0; b < buckets.length; b++) {
+                buckets[b] = new LongAdder();
+            }
+        }
+
+        public void record(long value) {
+            value = Math.max(value, 0);
+            buckets[64 - Long.numberOfLeadingZeros(value)].increment();
+            count.increment();
+            sum.add(value);
+            max.accumulate(value);
+        }
+
+        /**
+         * Records the nanoseconds elapsed since {@code startNanos}, a value of
+         * {@link System#nanoTime()}.
+         */
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSum() {
+            return sum.sum();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        /**
+         * Returns an upper bound of the value below which the given fraction of
+         * the recorded values fall, or 0 if nothing was recorded.
+         *
+         * @param fraction between 0 and 1, such as 0.99 for the 99th percentile.
+         */
+        public long percentile(double fraction) {
+            long total = getCount();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(fraction * total);
+            long seen = 0;
+            for (int b = 0; b < buckets.length; b++) {
+                seen += buckets[b].sum();
+                if (seen >= Math.max(rank, 1)) {
+                    long upper = b == 0 ? 0 : (1L << b) - 1;
+                    return Math.min(upper, getMax());
+                }
+            }
+            return getMax();
+        }
+
+        private void reset() {
+            for (LongAdder bucket : buckets) {
+                bucket.reset();
+            }
+            count.reset();
+            sum.reset();
+            max.reset();
+        }
+    }
+}
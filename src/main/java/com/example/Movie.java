@@ -4,8 +4,9 @@ import java.util.List;
 
 public class Movie {
     private String title;
-    private String id;
-    private List<String> genres;
+    private int id; // Ordinal in SymbolTable.MOVIE_IDS
+    private int[] genres; // Ordinals in SymbolTable.GENRES
+    private long[] genreMask; // Bit i is set when the movie has the genre with ordinal i
 
     public Movie(String title, String id, List<String> genres) throws MovieException {
 
@@ -14,30 +15,50 @@ public class Movie {
             throw new MovieException("ERROR: Movie "+ id + " has empty genres list");
         }
 
-        
-        String strippedTitle = title.replaceAll(" [0-9]", "");
-        strippedTitle = strippedTitle.replaceAll("[0-9] ", "");
-        strippedTitle = strippedTitle.replaceAll("[0-9]", "");
+
         // Validate title format: each word starts with one uppercase followed by only lowercase letters
-        if (!strippedTitle.matches("^([A-Z][a-z]*)(\\s[A-Z][a-z]*)*$")) {
+        if (!Validator.isValidTitle(title)) {
             throw new MovieException("ERROR: Movie Title " + title + " is wrong");
         }
         
-        // Extract capital letters from title
-        String expectedLetters = title.replaceAll("[^A-Z]", "");
-        
-        // Extract letters and numbers from id
-        String idLetters = id.replaceAll("[^A-Z]", "");
-        String idNumbers = id.replaceAll("[^0-9]", "");
-        
-        // Validate id letters match title capital letters
-        if (!idLetters.equals(expectedLetters) || idNumbers.length() != 3) {
+        // Validate id letters match title capital letters and id has three numbers
+        if (!Validator.isValidMovieId(title, id)) {
             throw new MovieException("ERROR: Movie Id letters " + id + " are wrong");
         }
         
+        this.title = title;
+        this.id = SymbolTable.MOVIE_IDS.intern(id);
+        this.genres = SymbolList.intern(SymbolTable.GENRES, genres);
+        this.genreMask = genreMask(this.genres);
+    }
+
+    private Movie(String title, int id, int[] genres) {
         this.title = title;
         this.id = id;
         this.genres = genres;
+        this.genreMask = genreMask(genres);
+    }
+
+    /**
+     * Recreates a movie that was validated before, such as one read back from
+     * a {@link DataStoreSnapshot}, without validating it again.
+     *
+     * @param genres the genre ordinals in {@link SymbolTable#GENRES}.
+     */
+    static Movie restore(String title, String id, int[] genres) {
+        return new Movie(title, SymbolTable.MOVIE_IDS.intern(id), genres);
+    }
+
+    private static long[] genreMask(int[] ordinals) {
+        int max = 0;
+        for (int ordinal : ordinals) {
+            max = Math.max(max, ordinal);
+        }
+        long[] mask = new long[(max >> 6) + 1];
+        for (int ordinal : ordinals) {
+            mask[ordinal >> 6] |= 1L << ordinal;
+        }
+        return mask;
     }
 
     public String getTitle() {
@@ -45,10 +66,50 @@ public class Movie {
     }
 
     public String getId() {
-        return id;
+        return SymbolTable.MOVIE_IDS.symbol(id);
     }
 
     public List<String> getGenres() {
+        return new SymbolList(SymbolTable.GENRES, genres);
+    }
+
+    /**
+     * Returns the ordinal of the movie ID in {@link SymbolTable#MOVIE_IDS}.
+     */
+    public int getIdOrdinal() {
+        return id;
+    }
+
+    /**
+     * Returns the ordinals of the genres in {@link SymbolTable#GENRES}, in the
+     * order they were given. The returned array must not be modified.
+     */
+    public int[] getGenreOrdinals() {
         return genres;
     }
+
+    /**
+     * Returns the genre bitmask of the movie: bit {@code i} is set when the
+     * movie has the genre with ordinal {@code i}. The returned array must not
+     * be modified.
+     */
+    public long[] getGenreMask() {
+        return genreMask;
+    }
+
+    /**
+     * Tests whether the movie has at least one genre of a genre bitmask.
+     *
+     * @param mask a genre bitmask laid out like {@link #getGenreMask()}.
+     * @return true if the movie shares a genre with the mask.
+     */
+    public boolean sharesGenre(long[] mask) {
+        int words = Math.min(mask.length, genreMask.length);
+        for (int i = 0; i < words; i++) {
+            if ((genreMask[i] & mask[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
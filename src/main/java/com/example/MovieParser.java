@@ -1,10 +1,15 @@
 package com.example;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 
 public class MovieParser {
 
+    private static final Metrics.Histogram PARSE_TIME = Metrics.GLOBAL.histogram("parser.movies.time_ns");
+    private static final Metrics.Counter RECORDS = Metrics.GLOBAL.counter("parser.movies.records");
+
     private List<Movie> movies_list;
 
     public MovieParser() {
@@ -13,31 +18,65 @@ public class MovieParser {
     }
 
     public List<Movie> parseMovies(String moviesFileData) throws Exception {
-        String[] lines = moviesFileData.split("\n");
-        int i = 0;
-        
-        while (i < lines.length) {
-            String line = lines[i];
+        return parseMovies(new StringReader(moviesFileData));
+    }
+
+    /**
+     * Parses movies from a reader, one record at a time, so only the current
+     * record is held in memory besides the parsed movies.
+     *
+     * @param moviesFile the movies file contents.
+     * @return the parsed movies, in file order.
+     */
+    public List<Movie> parseMovies(Reader moviesFile) throws Exception {
+        return parseMovies(new LineReader(moviesFile));
+    }
+
+    /**
+     * Parses movies from the lines of a movies file, such as a memory-mapped one.
+     *
+     * @param lines the lines of the movies file.
+     * @return the parsed movies, in file order.
+     */
+    public List<Movie> parseMovies(LineReader lines) throws Exception {
+        long start = System.nanoTime();
+        Movie movie;
+        while ((movie = nextMovie(lines)) != null) {
+            movies_list.add(movie);
+            RECORDS.increment();
+        }
+        PARSE_TIME.recordSince(start);
+        return movies_list;
+    }
+
+    /**
+     * Reads the next movie record: a title and id line followed by a genres
+     * line. Lines without a title and id are skipped.
+     *
+     * @param lines the lines of the movies file.
+     * @return the next movie, or {@code null} when there are no more records.
+     */
+    public Movie nextMovie(LineReader lines) throws Exception {
+        String line;
+        while ((line = lines.readLine()) != null) {
             
             // Read the first line: title and id
             String[] titleAndId = line.split(",", 2);
             if (titleAndId.length < 2) {
-                i++;
                 continue;
             }
             
             String title = titleAndId[0].trim();
             String id = titleAndId[1].trim();
             
-            i++;
-            if (i >= lines.length) {
+            line = lines.readLine();
+            if (line == null) {
                 throw new MovieException("Genres are missing for movie " + id);
             }
             
-            line = lines[i];
             String[] genresArray = line.split(",");
             if (genresArray.length > 1) {
-                if (genresArray[1].matches(".*\\d.*")) {
+                if (Validator.hasDigit(genresArray[1])) {
                     throw new MovieException("Genres are invalid for movie " + id);
                     
                 }
@@ -47,11 +86,9 @@ public class MovieParser {
                 genres.add(genre.trim());
             }
             
-            Movie movie = new Movie(title, id, genres);
-            movies_list.add(movie);
-            i++;
+            return new Movie(title, id, genres);
         }
 
-        return movies_list;
+        return null;
     }
 }
@@ -1,22 +1,101 @@
 package com.example;
 
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
+/**
+ * Parses the users and movies files. The files are memory-mapped, or
+ * streamed when the platform charset cannot be scanned byte by byte, and read
+ * record by record when {@link #parse()} is called rather than loaded into
+ * memory up front.
+ * With a parallelism above 1 the mapped users file, usually the largest, is
+ * split into byte ranges that are parsed in parallel instead.
+ */
 public class Parser {
-    private String usersFileData;
-    private String moviesFileData;
+    private Path usersFile;
+    private Path moviesFile;
+    private int parallelism;
     Movie Movies[];
 
+    /**
+     * @throws java.io.IOException if either file does not exist or cannot be read.
+     */
     public Parser(String usersFilePath, String moviesFilePath) throws java.io.IOException {
-        this.usersFileData = new String(java.nio.file.Files.readAllBytes(java.nio.file.Paths.get(usersFilePath)));
-        this.moviesFileData = new String(java.nio.file.Files.readAllBytes(java.nio.file.Paths.get(moviesFilePath)));
+        this(usersFilePath, moviesFilePath, 1);
+    }
+
+    /**
+     * @param parallelism the number of threads that parse the users file; 1
+     *                    reads it on the calling thread, as does any value
+     *                    when the platform charset cannot be mapped.
+     * @throws java.io.IOException if either file does not exist or cannot be read.
+     */
+    public Parser(String usersFilePath, String moviesFilePath, int parallelism) throws java.io.IOException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be positive: " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.usersFile = Paths.get(usersFilePath);
+        this.moviesFile = Paths.get(moviesFilePath);
+        // Fail early, like reading the files here would, if either is missing
+        Files.size(usersFile);
+        Files.size(moviesFile);
     }
 
     public ParseResult parse() throws Exception {
-        List<Movie> movies = new MovieParser().parseMovies(moviesFileData);
-        List<User> users = new UserParser().parseUsers(usersFileData);       
+        List<Movie> movies;
+        Events.ParseFile event = new Events.ParseFile();
+        event.begin();
+        try (LineReader lines = open(moviesFile)) {
+            movies = new MovieParser().parseMovies(lines);
+        }
+        commit(event, moviesFile, movies.size());
+
+        List<User> users;
+        event = new Events.ParseFile();
+        event.begin();
+        if (parallelism > 1 && LineReader.isAsciiCompatible(Charset.defaultCharset())) {
+            users = parseUsersInParallel();
+        } else {
+            try (LineReader lines = open(usersFile)) {
+                users = new UserParser().parseUsers(lines);
+            }
+        }
+        commit(event, usersFile, users.size());
         ParseResult pr = new ParseResult(movies, users);
         return pr;
     }
 
+    private static void commit(Events.ParseFile event, Path file, int records) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = file.toString();
+            event.records = records;
+            event.commit();
+        }
+    }
+
+    private List<User> parseUsersInParallel() throws Exception {
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return new UserParser().parseUsers(usersFile, Charset.defaultCharset(), pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static LineReader open(Path file) throws java.io.IOException {
+        // Decode like new String(bytes) did: platform charset, malformed input replaced
+        Charset charset = Charset.defaultCharset();
+        if (LineReader.isAsciiCompatible(charset)) {
+            return LineReader.map(file, charset);
+        }
+        return new LineReader(new InputStreamReader(Files.newInputStream(file), charset));
+    }
+
 }
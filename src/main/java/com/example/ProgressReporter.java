@@ -0,0 +1,107 @@
+package com.example;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reports how far recommendation generation has got. Instead of a line per
+ * user, it prints a summary at most once per interval: users done, users
+ * per second and the estimated time left. Users can be reported from any
+ * thread.
+ */
+public class ProgressReporter {
+
+    /**
+     * How much is printed.
+     */
+    public enum Level {
+        /** Nothing. */
+        QUIET,
+        /** Interval summaries and a final summary. */
+        NORMAL,
+        /** Interval and final summaries plus a line per user. */
+        VERBOSE
+    }
+
+    private Level level;
+    private long total;
+    private long intervalNanos;
+    private PrintStream out;
+    private long start;
+    private AtomicLong done = new AtomicLong();
+    private AtomicLong lastReport; // nanoTime of the last summary
+
+    /**
+     * @param level    how much to print.
+     * @param total    the number of users that will be reported.
+     * @param interval the minimum time between two summaries.
+     * @param unit     the unit of {@code interval}.
+     * @param out      where to print.
+     */
+    public ProgressReporter(Level level, long total, long interval, TimeUnit unit, PrintStream out) {
+        this.level = level;
+        this.total = total;
+        this.intervalNanos = unit.toNanos(interval);
+        this.out = out;
+        this.start = System.nanoTime();
+        this.lastReport = new AtomicLong(start);
+    }
+
+    /**
+     * Records that a user's recommendations are done, printing a summary if
+     * the interval has passed since the last one.
+     */
+    public void userDone(User user) {
+        long count = done.incrementAndGet();
+        if (level == Level.QUIET) {
+            return;
+        }
+        if (level == Level.VERBOSE) {
+            out.println("Generated recommendations for user: " + user.getName());
+        }
+        long now = System.nanoTime();
+        long last = lastReport.get();
+        // Only the thread that moves lastReport forward prints
+        if (now - last >= intervalNanos && lastReport.compareAndSet(last, now)) {
+            out.println(summary(count, now));
+        }
+    }
+
+    /**
+     * Prints the final summary: users done, total time and throughput.
+     */
+    public void finish() {
+        if (level == Level.QUIET) {
+            return;
+        }
+        long count = done.get();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        out.printf(Locale.ROOT, "Generated recommendations for %d users in %.1f s (%.0f users/s)%n",
+                count, seconds, rate(count, seconds));
+    }
+
+    /**
+     * Returns the number of users reported so far.
+     */
+    public long getDone() {
+        return done.get();
+    }
+
+    private String summary(long count, long now) {
+        double seconds = (now - start) / 1e9;
+        double rate = rate(count, seconds);
+        String eta = rate > 0 ? duration((long) ((total - count) / rate)) : "unknown";
+        return String.format(Locale.ROOT, "Progress: %d/%d users (%.1f%%), %.0f users/s, ETA %s",
+                count, total, total > 0 ? 100.0 * count / total : 100.0, rate, eta);
+    }
+
+    private static double rate(long count, double seconds) {
+        return seconds > 0 ? count / seconds : 0;
+    }
+
+    private static String duration(long seconds) {
+        return String.format("%d:%02d:%02d", seconds / 3600, seconds / 60 % 60, seconds % 60);
+    }
+}
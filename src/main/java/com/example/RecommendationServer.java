@@ -0,0 +1,153 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Answers recommendation queries over HTTP from a data store that is loaded
+ * once and kept in memory. {@code GET /recommendations/<userId>} returns the
+ * user's recommendations as JSON:
+ * {@code {"id":"123456789","name":"John Doe","recommendations":[{"id":"TM123","title":"The Matrix"}]}}.
+ * An unknown user gets 404. The server listens on the loopback address only.
+ *
+ * <p>Each query runs on its own virtual thread when the JDK has them (Java
+ * 21 and later) and on a cached thread pool otherwise.
+ */
+public class RecommendationServer {
+
+    static final String PATH = "/recommendations/";
+
+    private DataStore dataStore;
+    private Recommender recommender;
+    private int topK;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * @param dataStore   the data store users are looked up in.
+     * @param recommender the recommender that answers queries.
+     * @param topK        the number of ranked recommendations per query, or 0
+     *                    for every match in catalog order.
+     */
+    public RecommendationServer(DataStore dataStore, Recommender recommender, int topK) {
+        if (topK < 0) {
+            throw new IllegalArgumentException("Number of recommendations must not be negative: " + topK);
+        }
+        this.dataStore = dataStore;
+        this.recommender = recommender;
+        this.topK = topK;
+    }
+
+    /**
+     * Starts listening.
+     *
+     * @param port the port to listen on, or 0 for any free port.
+     */
+    public void start(int port) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext(PATH, this::handle);
+        executor = newExecutor();
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Returns the port the server listens on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops listening, waiting at most {@code delaySeconds} for queries in
+     * progress to finish.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                respond(exchange, 405, error("Only GET is supported"));
+                return;
+            }
+            String id = exchange.getRequestURI().getPath().substring(PATH.length());
+            User user = dataStore.getUserById(id);
+            if (user == null) {
+                respond(exchange, 404, error("No user with ID " + id));
+                return;
+            }
+            List<Movie> recommendations = topK > 0
+                    ? recommender.recommendTopMovies(user, topK)
+                    : recommender.recommendMovies(user);
+            respond(exchange, 200, toJson(user, recommendations));
+        } catch (RuntimeException e) {
+            respond(exchange, 500, error("Failed to recommend: " + e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String toJson(User user, List<Movie> recommendations) {
+        StringBuilder json = new StringBuilder("{\"id\":").append(quote(user.getId()))
+                .append(",\"name\":").append(quote(user.getName()))
+                .append(",\"recommendations\":[");
+        for (int i = 0; i < recommendations.size(); i++) {
+            Movie movie = recommendations.get(i);
+            json.append(i > 0 ? "," : "")
+                    .append("{\"id\":").append(quote(movie.getId()))
+                    .append(",\"title\":").append(quote(movie.getTitle())).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + quote(message) + "}";
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    // Virtual threads are only in Java 21 and later; the project targets 17
+    private static ExecutorService newExecutor() {
+        try {
+            Method virtual = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) virtual.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+}
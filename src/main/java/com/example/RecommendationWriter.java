@@ -1,42 +1,168 @@
 package com.example;
 
 import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.FilterWriter;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.List;
 
-public class RecommendationWriter {
+/**
+ * Appends users and their recommendations to the output file.
+ * By default every call opens, appends to and closes the file. Between
+ * {@link #open()} and {@link #close()} the writer instead keeps one session
+ * open and streams all users through a single large buffer, which is flushed
+ * when the session is closed.
+ */
+public class RecommendationWriter implements AutoCloseable {
+
+    private static final int SESSION_BUFFER_SIZE = 1 << 20;
+    private static final int CALL_BUFFER_SIZE = 8192;
+
+    private static final Metrics.Counter BYTES = Metrics.GLOBAL.counter("writer.bytes");
+    private static final Metrics.Counter FLUSHES = Metrics.GLOBAL.counter("writer.flushes");
 
     private String outputFilePath;
+    private BufferedWriter session; // Open between open() and close(), null otherwise
 
     public RecommendationWriter(String outputFilePath) {
         this.outputFilePath = outputFilePath;
     }
 
+    /**
+     * Opens the output file once for all following writes, until
+     * {@link #close()} is called. Does nothing if a session is already open.
+     */
+    public void open() {
+        if (session != null) {
+            return;
+        }
+        try {
+            session = openFile(SESSION_BUFFER_SIZE);
+        } catch (java.io.IOException e) {
+            throw new RuntimeException("Failed to open " + outputFilePath, e);
+        }
+    }
+
     public void writeRecommendations(User user, List<Movie> recommendations) {
-        try (BufferedWriter writer = Files.newBufferedWriter(
-                Paths.get(outputFilePath),
-                StandardCharsets.UTF_8,
-                StandardOpenOption.CREATE,
-                StandardOpenOption.APPEND)) {
-
-            writer.write(user.getName() + "," + String.valueOf(user.getId()));
-            writer.newLine();
-            for(int i = 0; i < recommendations.size(); i++) {
-                Movie movie = recommendations.get(i);
-                writer.write(movie.getTitle()); 
-                if (i == recommendations.size() - 1) {
-                    writer.newLine();
-                }
-                else{
-                    writer.write(",");
-                }
+        if (session != null) {
+            try {
+                write(session, user, recommendations);
+            } catch (java.io.IOException e) {
+                throw new RuntimeException("Failed to write recommendations to " + outputFilePath, e);
             }
+            return;
+        }
+        try (BufferedWriter writer = openFile(CALL_BUFFER_SIZE)) {
+
+            write(writer, user, recommendations);
 
         } catch (java.io.IOException e) {
             throw new RuntimeException("Failed to write recommendations to " + outputFilePath, e);
         }
     }
+
+    /**
+     * Flushes and closes the session opened by {@link #open()}, if any.
+     */
+    @Override
+    public void close() {
+        if (session == null) {
+            return;
+        }
+        try {
+            session.close();
+        } catch (java.io.IOException e) {
+            throw new RuntimeException("Failed to write recommendations to " + outputFilePath, e);
+        } finally {
+            session = null;
+        }
+    }
+
+    private BufferedWriter openFile(int bufferSize) throws java.io.IOException {
+        OutputStream file = Files.newOutputStream(
+                Paths.get(outputFilePath),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+        CountingOutputStream counted = new CountingOutputStream(file);
+        return new BufferedWriter(new DrainWriter(new OutputStreamWriter(counted, StandardCharsets.UTF_8), counted),
+                bufferSize);
+    }
+
+    private void write(BufferedWriter writer, User user, List<Movie> recommendations) throws java.io.IOException {
+        writer.write(user.getName() + "," + String.valueOf(user.getId()));
+        writer.newLine();
+        for(int i = 0; i < recommendations.size(); i++) {
+            Movie movie = recommendations.get(i);
+            writer.write(movie.getTitle()); 
+            if (i == recommendations.size() - 1) {
+                writer.newLine();
+            }
+            else{
+                writer.write(",");
+            }
+        }
+    }
+
+    /**
+     * Sits under the {@link BufferedWriter}, which hands over its whole
+     * buffer in one {@code write(char[], int, int)} call whenever the buffer
+     * is full or flushed. Each such drain is encoded and pushed to the file
+     * at once, and counted and recorded as one flush.
+     */
+    private static class DrainWriter extends FilterWriter {
+
+        private CountingOutputStream file;
+
+        DrainWriter(Writer out, CountingOutputStream file) {
+            super(out);
+            this.file = file;
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws java.io.IOException {
+            Events.WriterFlush event = new Events.WriterFlush();
+            event.begin();
+            long before = file.count;
+            out.write(chars, offset, length);
+            out.flush();
+            FLUSHES.increment();
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytes = file.count - before;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes that reach the file.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws java.io.IOException {
+            out.write(bytes, offset, length);
+            count += length;
+            BYTES.add(length);
+        }
+
+        @Override
+        public void write(int b) throws java.io.IOException {
+            out.write(b);
+            count++;
+            BYTES.increment();
+        }
+    }
 }
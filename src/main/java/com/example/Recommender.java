@@ -1,59 +1,253 @@
 package com.example;
 
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
 
 /**
  * Provides movie recommendation functionalities.
+ * A Recommender only reads from its data store, so it can serve several
+ * threads at once as long as the data store is not modified meanwhile, or
+ * is a {@link ConcurrentDataStore}.
  */
 public class Recommender {
+
+    static final Metrics.Histogram RECOMMEND_TIME = Metrics.GLOBAL.histogram("recommender.recommend_ns");
+    static final Metrics.Histogram CANDIDATES = Metrics.GLOBAL.histogram("recommender.candidates");
+    private static final Metrics.Counter CACHE_HITS = Metrics.GLOBAL.counter("recommender.cache.hits");
+    private static final Metrics.Counter CACHE_MISSES = Metrics.GLOBAL.counter("recommender.cache.misses");
     /**
      * The data source containing user and movie information.
      */
     private DataStore data;
 
+    private int cacheSize;
+    // Liked genre set -> catalog positions of the movies sharing one of them, least recently used first
+    private LinkedHashMap<BitSet, BitSet> candidateCache;
+    private long cacheVersion; // DataStore version the cached candidates were computed from
+
     /**
      * Constructs a new Recommender instance.
      *
      * @param data The data store to use for generating recommendations.
      */
     public Recommender(DataStore data) {
+        this(data, 0);
+    }
+
+    /**
+     * Constructs a Recommender that remembers the candidate movies of the
+     * most recently seen liked genre sets. Users whose liked movies cover the
+     * same genres share one candidate computation; only the exclusion of
+     * each user's own liked movies is done per call. The cache is cleared
+     * whenever a movie is added to the data store.
+     *
+     * @param data      The data store to use for generating recommendations.
+     * @param cacheSize The number of genre sets to remember; 0 disables the cache.
+     */
+    public Recommender(DataStore data, int cacheSize) {
+        if (cacheSize < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + cacheSize);
+        }
         this.data = data;
+        this.cacheSize = cacheSize;
+        this.candidateCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BitSet, BitSet> eldest) {
+                return size() > Recommender.this.cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the data store the recommendations are generated from.
+     */
+    protected DataStore getDataStore() {
+        return data;
     }
 
     /**
      * Generates movie recommendations for a specific user.
+     * The user's liked genres are collected into a genre bitmask, and every
+     * movie that shares a genre with it, other than the liked movies, is
+     * recommended. Recommendations are returned in catalog order.
      *
      * @param user The user for whom to generate recommendations.
      */
     public List<Movie> recommendMovies(User user) {
-        // Get the list of movies the user likes
-        List<String> likedMoviesIDs = user.getLikedMovies();
-        List<Movie> likedMovies = new ArrayList<>();
-        for (String id : likedMoviesIDs) {
-            likedMovies.add(data.getMovieById(id));
-        }
-        // Get List of liked genres
-        List<String> likedGenres = new ArrayList<>();
-        for (Movie movie : likedMovies) {
-            List<String> genres = movie.getGenres();
-            for (String genre : genres) {
-                if (!likedGenres.contains(genre)) {
-                    likedGenres.add(genre);
+        Events.Recommend event = new Events.Recommend();
+        event.begin();
+        long start = System.nanoTime();
+        DataStore data = this.data.snapshot();
+        // Get the movies the user likes and the mask of their genres
+        BitSet likedMovies = new BitSet();
+        long[] likedGenres = new long[0];
+        for (String id : user.getLikedMovies()) {
+            Movie movie = data.getMovieById(id);
+            likedMovies.set(movie.getIdOrdinal());
+            likedGenres = or(likedGenres, movie.getGenreMask());
+        }
+        List<Movie> movies = data.getMovies();
+        BitSet candidates = candidates(data, movies, likedGenres);
+        List<Movie> recommendations = new ArrayList<>();
+        // Recommend the candidates in catalog order, excluding already liked movies
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Movie movie = movies.get(i);
+            if (likedMovies.get(movie.getIdOrdinal())) continue;
+            recommendations.add(movie);
+        }
+        int candidateCount = candidates.cardinality();
+        CANDIDATES.record(candidateCount);
+        RECOMMEND_TIME.recordSince(start);
+        event.finish(user, candidateCount, recommendations.size());
+        return recommendations;
+    }
+
+    /**
+     * Generates the {@code k} best recommendations for a user, best first.
+     * Candidates are the movies {@link #recommendMovies(User)} returns. Each
+     * one is scored by adding up, over the genres it shares with the user's
+     * liked movies, how many liked movies have that genre, so genres the user
+     * likes often count more. Only the best {@code k} are kept, in a bounded
+     * heap; equal scores are ranked in catalog order.
+     *
+     * @param user The user for whom to generate recommendations.
+     * @param k    The maximum number of recommendations to return.
+     * @throws IllegalArgumentException if {@code k} is negative.
+     */
+    public List<Movie> recommendTopMovies(User user, int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Number of recommendations must not be negative: " + k);
+        }
+        Events.Recommend event = new Events.Recommend();
+        event.begin();
+        long start = System.nanoTime();
+        DataStore data = this.data.snapshot();
+        BitSet likedMovies = new BitSet();
+        long[] likedGenres = new long[0];
+        int[] genreLikes = new int[0]; // Genre ordinal -> number of liked movies with that genre
+        for (String id : user.getLikedMovies()) {
+            Movie movie = data.getMovieById(id);
+            likedMovies.set(movie.getIdOrdinal());
+            likedGenres = or(likedGenres, movie.getGenreMask());
+            for (int genre : movie.getGenreOrdinals()) {
+                if (genre >= genreLikes.length) {
+                    genreLikes = java.util.Arrays.copyOf(genreLikes, genre + 1);
                 }
+                genreLikes[genre]++;
             }
         }
-        // Recommend movies based on liked genres and exclude already liked movies
-        List<Movie> recommendations = new ArrayList<>();
-        for (Movie movie : data.getMovies()) {
-            if (likedMovies.contains(movie)) continue;
-            for (String genre : movie.getGenres()) {
-                if (likedGenres.contains(genre)) {
-                    recommendations.add(movie);
-                    break;
+        List<Movie> movies = data.getMovies();
+        BitSet candidates = candidates(data, movies, likedGenres);
+
+        // Min-heap of the best k so far; a key is the score, then the reversed position
+        PriorityQueue<Long> best = new PriorityQueue<>();
+        for (int i = candidates.nextSetBit(0); i >= 0 && k > 0; i = candidates.nextSetBit(i + 1)) {
+            Movie movie = movies.get(i);
+            if (likedMovies.get(movie.getIdOrdinal())) continue;
+            int score = 0;
+            for (int genre : movie.getGenreOrdinals()) {
+                if (genre < genreLikes.length) {
+                    score += genreLikes[genre];
                 }
             }
+            long key = ((long) score << 32) | (Integer.MAX_VALUE - i);
+            if (best.size() < k) {
+                best.add(key);
+            } else if (key > best.peek()) {
+                best.poll();
+                best.add(key);
+            }
         }
-        return recommendations;
+        Movie[] ranked = new Movie[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = movies.get(Integer.MAX_VALUE - (int) (best.poll() & 0xFFFFFFFFL));
+        }
+        // Same quantity as recommendMovies, so full and top-k runs compare
+        int candidateCount = candidates.cardinality();
+        CANDIDATES.record(candidateCount);
+        RECOMMEND_TIME.recordSince(start);
+        event.finish(user, candidateCount, ranked.length);
+        return java.util.Arrays.asList(ranked);
+    }
+
+    /**
+     * Returns the catalog positions of the movies that share a genre with
+     * the liked genres, including the liked movies themselves. The result
+     * comes from the cache when the genre set was seen recently and must not
+     * be modified.
+     */
+    private BitSet candidates(DataStore data, List<Movie> movies, long[] likedGenres) {
+        if (cacheSize == 0) {
+            return computeCandidates(data, movies, likedGenres);
+        }
+        BitSet key = BitSet.valueOf(likedGenres);
+        synchronized (candidateCache) {
+            long version = data.getVersion();
+            if (version != cacheVersion) {
+                candidateCache.clear();
+                cacheVersion = version;
+            }
+            BitSet cached = candidateCache.get(key);
+            if (cached != null) {
+                CACHE_HITS.increment();
+                return cached;
+            }
+        }
+        CACHE_MISSES.increment();
+        BitSet candidates = computeCandidates(data, movies, likedGenres);
+        synchronized (candidateCache) {
+            if (data.getVersion() == cacheVersion) {
+                candidateCache.put(key, candidates);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Candidates are either the union of the genre posting lists of the liked
+     * genres or, when the user likes so many genres that merging their
+     * postings would cost more than a pass over the catalog, every movie whose
+     * genre mask intersects the user's.
+     */
+    private BitSet computeCandidates(DataStore data, List<Movie> movies, long[] likedGenres) {
+        BitSet candidates = new BitSet();
+        if (genreCount(likedGenres) * ((movies.size() >> 6) + 1) > movies.size()) {
+            // Scan the catalog, testing each movie with a mask intersection
+            for (int i = 0; i < movies.size(); i++) {
+                if (movies.get(i).sharesGenre(likedGenres)) {
+                    candidates.set(i);
+                }
+            }
+            return candidates;
+        }
+        // Union the posting lists of the liked genres into catalog positions
+        for (int word = 0; word < likedGenres.length; word++) {
+            for (long bits = likedGenres[word]; bits != 0; bits &= bits - 1) {
+                candidates.or(data.getGenrePostings((word << 6) + Long.numberOfTrailingZeros(bits)));
+            }
+        }
+        return candidates;
+    }
+
+    private static long[] or(long[] into, long[] mask) {
+        if (into.length < mask.length) {
+            into = java.util.Arrays.copyOf(into, mask.length);
+        }
+        for (int i = 0; i < mask.length; i++) {
+            into[i] |= mask[i];
+        }
+        return into;
+    }
+
+    private static int genreCount(long[] mask) {
+        int count = 0;
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+        return count;
     }
 }
\ No newline at end of file
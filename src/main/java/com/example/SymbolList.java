@@ -0,0 +1,44 @@
+package com.example;
+
+import java.util.AbstractList;
+
+/**
+ * Read-only list view that decodes an array of ordinals back into the
+ * strings they were interned from.
+ */
+class SymbolList extends AbstractList<String> {
+
+    private final SymbolTable table;
+    private final int[] ordinals;
+
+    SymbolList(SymbolTable table, int[] ordinals) {
+        this.table = table;
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * Interns every string of a list into a table.
+     *
+     * @param table the table to intern into.
+     * @param symbols the strings to intern.
+     * @return the ordinals, in list order.
+     */
+    static int[] intern(SymbolTable table, java.util.List<String> symbols) {
+        int[] ordinals = new int[symbols.size()];
+        int i = 0;
+        for (String symbol : symbols) {
+            ordinals[i++] = table.intern(symbol);
+        }
+        return ordinals;
+    }
+
+    @Override
+    public String get(int index) {
+        return table.symbol(ordinals[index]);
+    }
+
+    @Override
+    public int size() {
+        return ordinals.length;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary that assigns each distinct string a dense int ordinal.
+ * Ordinals start at 0 and never change once assigned, so they can be used as
+ * array indexes and compared with {@code ==} instead of {@code String.equals}.
+ * Interning is thread-safe.
+ */
+public final class SymbolTable {
+
+    /**
+     * Shared table for movie genres.
+     */
+    public static final SymbolTable GENRES = new SymbolTable();
+
+    /**
+     * Shared table for movie IDs, including the liked movie IDs of users.
+     */
+    public static final SymbolTable MOVIE_IDS = new SymbolTable();
+
+    private final ConcurrentHashMap<String, Integer> ordinals = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[16];
+    private int size; // guarded by this
+
+    /**
+     * Returns the ordinal of a symbol, assigning the next free ordinal if the
+     * symbol has not been seen before.
+     *
+     * @param symbol the string to intern.
+     * @return the ordinal of the symbol.
+     */
+    public int intern(String symbol) {
+        Integer ordinal = ordinals.get(symbol);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        synchronized (this) {
+            ordinal = ordinals.get(symbol);
+            if (ordinal != null) {
+                return ordinal;
+            }
+            String[] current = symbols;
+            if (size == current.length) {
+                current = Arrays.copyOf(current, size * 2);
+                symbols = current;
+            }
+            current[size] = symbol;
+            // Publishing through the map makes the array write visible to readers of the ordinal
+            ordinals.put(symbol, size);
+            return size++;
+        }
+    }
+
+    /**
+     * Returns the ordinal of a symbol without assigning one.
+     *
+     * @param symbol the string to look up.
+     * @return the ordinal of the symbol, or -1 if it has not been interned.
+     */
+    public int lookup(String symbol) {
+        Integer ordinal = ordinals.get(symbol);
+        return ordinal != null ? ordinal : -1;
+    }
+
+    /**
+     * Returns the symbol that was assigned the given ordinal.
+     *
+     * @param ordinal an ordinal returned by {@link #intern(String)}.
+     * @return the interned string.
+     */
+    public String symbol(int ordinal) {
+        return symbols[ordinal];
+    }
+
+    /**
+     * Returns the number of symbols interned so far.
+     */
+    public int size() {
+        return ordinals.size();
+    }
+}
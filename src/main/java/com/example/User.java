@@ -6,29 +6,53 @@ public class User {
 
     private String name;
     private String id;
-    private List<String> likedMoviesIDs; // List of movie IDs
+    private int[] likedMoviesIDs; // Ordinals of the liked movie IDs in SymbolTable.MOVIE_IDS
 
     public User(String name, String id, List<String> likedMoviesIDs) throws UserException {
+        validate(name, id);
+        this.name = name;
+        this.id = id;
+        this.likedMoviesIDs = SymbolList.intern(SymbolTable.MOVIE_IDS, likedMoviesIDs);
+    }
+
+    /**
+     * Checks a user name and ID the way the public constructor does.
+     *
+     * @throws UserException if either is invalid.
+     */
+    static void validate(String name, String id) throws UserException {
         // Validate user name: must be alphabetic characters and spaces, cannot start with space
-        if (!name.matches("[A-Za-z][A-Za-z\\s]*")) {
+        if (!Validator.isValidUserName(name)) {
             throw new UserException("Error in user name\nERROR: User Name " + name + " is wrong");
         }
         
         // Validate user ID: must be alphanumeric, exactly 9 characters, 
         // starts with numbers, might end with only one alphabetic character
-        if (!id.matches("[0-9]+[A-Za-z]?")) {
+        if (!Validator.isValidUserId(id)) {
             throw new UserException("Error in user id \nERROR: User Id " + id + " is wrong");
         }
         
         if (id.length() != 9) {
             throw new UserException("Error in user id \nERROR: User Id " + id + " is wrong");
         }
-        
+    }
+
+    private User(String name, String id, int[] likedMoviesIDs) {
         this.name = name;
         this.id = id;
         this.likedMoviesIDs = likedMoviesIDs;
     }
 
+    /**
+     * Recreates a user that was validated before, such as one read back from
+     * a {@link DataStoreSnapshot}, without validating it again.
+     *
+     * @param likedMoviesIDs the liked movie ordinals in {@link SymbolTable#MOVIE_IDS}.
+     */
+    static User restore(String name, String id, int[] likedMoviesIDs) {
+        return new User(name, id, likedMoviesIDs);
+    }
+
     public String getName() {
         return name;
     }
@@ -38,10 +62,21 @@ public class User {
     }
 
     public List<String> getLikedMovies() {
+        return new SymbolList(SymbolTable.MOVIE_IDS, this.likedMoviesIDs);
+    }
+
+    /**
+     * Returns the ordinals of the liked movie IDs in
+     * {@link SymbolTable#MOVIE_IDS}, in the order they were liked. The
+     * returned array must not be modified.
+     */
+    public int[] getLikedMovieOrdinals() {
         return this.likedMoviesIDs;
     }
 
     public void addLikedMovie(String movie_id) {
-        this.likedMoviesIDs.add(movie_id);
+        int[] liked = java.util.Arrays.copyOf(this.likedMoviesIDs, this.likedMoviesIDs.length + 1);
+        liked[liked.length - 1] = SymbolTable.MOVIE_IDS.intern(movie_id);
+        this.likedMoviesIDs = liked;
     }
 }
@@ -1,47 +1,217 @@
 package com.example;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 public class UserParser {
 
+    // Below this many bytes per range, splitting costs more than it saves
+    private static final int MIN_CHUNK_LENGTH = 64 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private static final Metrics.Histogram PARSE_TIME = Metrics.GLOBAL.histogram("parser.users.time_ns");
+    private static final Metrics.Counter RECORDS = Metrics.GLOBAL.counter("parser.users.records");
+
     private List<User> users_list;
 
     public UserParser() {
         users_list=new ArrayList<>();
     }
 
-    private void addLikedMovies(String l, User user) throws Exception {
-        String[] parts = l.split(",");
-        
-        if (parts[0].matches(".*\\d.*") == false) {
-            throw new UserException("Liked movies are invalid for user " + user.getId());
-            
+    public List<User> parseUsers(String usersFileData) throws Exception {
+        return parseUsers(new StringReader(usersFileData));
+    }
+
+    /**
+     * Parses users from a reader, one record at a time, so only the current
+     * record is held in memory besides the parsed users.
+     *
+     * @param usersFile the users file contents.
+     * @return the parsed users, in file order.
+     */
+    public List<User> parseUsers(Reader usersFile) throws Exception {
+        return parseUsers(new LineReader(usersFile));
+    }
+
+    /**
+     * Parses users from the lines of a users file, such as a memory-mapped one.
+     *
+     * @param lines the lines of the users file.
+     * @return the parsed users, in file order.
+     */
+    public List<User> parseUsers(LineReader lines) throws Exception {
+        long start = System.nanoTime();
+        User user;
+        while ((user = nextUser(lines)) != null) {
+            users_list.add(user);
+            RECORDS.increment();
         }
+        PARSE_TIME.recordSince(start);
+        return users_list;
+    }
 
-        for (String id : parts) {
-            user.addLikedMovie(id);
+    /**
+     * Reads the next user record: a name and id line followed by a liked
+     * movies line.
+     *
+     * @param lines the lines of the users file.
+     * @return the next user, or {@code null} when there are no more records.
+     */
+    public User nextUser(LineReader lines) throws Exception {
+        String line = lines.readLine();
+        if (line == null) {
+            return null;
         }
+        int lineNumber = lines.getLineNumber();
+        return parseRecord(line, lineNumber, lines.readLine());
     }
 
-    public List<User> parseUsers(String usersFileData) throws Exception {
-        // Method to parse users
-        String[] lines = usersFileData.split("\n");
-        int length = lines.length;
-        for (int i = 0; i < length; i += 2) {
-            String[] parts = lines[i].split(",");
-            if (parts.length != 2) {
-                throw new UserException("Invalid user data format at line " + (i + 1));
+    /**
+     * Parses a memory-mapped users file in parallel on the given pool. The
+     * file is split into byte ranges that start at a record, and each range
+     * is read through its own {@link LineReader}, so the file is never copied
+     * into the heap. The result, and the first error if there is one, are
+     * the same as with {@link #parseUsers(LineReader)}. Small files are
+     * parsed sequentially.
+     *
+     * @param usersFile the users file.
+     * @param charset   the file encoding, as accepted by {@link LineReader#map(Path, Charset)}.
+     * @param pool      the pool that parses the ranges.
+     * @return the parsed users, in file order.
+     */
+    public List<User> parseUsers(Path usersFile, Charset charset, ForkJoinPool pool) throws Exception {
+        long start = System.nanoTime();
+        long[] bounds;
+        long[] linesBefore;
+        try (FileChannel channel = FileChannel.open(usersFile, StandardOpenOption.READ)) {
+            // Trailing empty lines are dropped, so no range may start among them
+            long end = LineReader.contentEnd(channel);
+            int chunks = (int) Math.min(pool.getParallelism() * CHUNKS_PER_THREAD, end / MIN_CHUNK_LENGTH);
+            if (chunks < 2) {
+                try (LineReader lines = LineReader.map(usersFile, charset)) {
+                    return parseUsers(lines);
+                }
             }
-            User user = new User(parts[0], parts[1], new ArrayList<>());
-            users_list.add(user);
-            if (i+1 < length) {
-                addLikedMovies(lines[i + 1], user);   
+            long size = channel.size();
+            bounds = new long[chunks + 1];
+            bounds[chunks] = size;
+            for (int i = 1; i < chunks; i++) {
+                bounds[i] = lineStart(channel, end * i / chunks, end, size);
+            }
+
+            // Count the newlines in each range so every range knows its line numbers
+            List<Callable<Long>> counts = new ArrayList<>();
+            for (int i = 0; i < chunks; i++) {
+                long from = bounds[i];
+                long to = bounds[i + 1];
+                counts.add(() -> LineReader.countNewlines(channel, from, to));
             }
-            else {
-                throw new UserException("Liked movies are invalid for user " + user.getId());
+            List<Future<Long>> counted = pool.invokeAll(counts);
+            linesBefore = new long[chunks];
+            long lines = 0;
+            for (int i = 1; i < chunks; i++) {
+                lines += getResult(counted.get(i - 1));
+                linesBefore[i] = lines;
+                if (linesBefore[i] % 2 == 1) {
+                    // Records start on even lines; this range starts at a liked movies line
+                    bounds[i] = lineStart(channel, bounds[i] + 1, end, size);
+                    linesBefore[i]++;
+                }
+            }
+        }
+
+        List<Callable<Chunk>> tasks = new ArrayList<>();
+        for (int i = 0; i < bounds.length - 1; i++) {
+            long from = bounds[i];
+            long to = Math.max(from, bounds[i + 1]);
+            long lines = linesBefore[i];
+            tasks.add(() -> parseChunk(usersFile, charset, from, to, lines));
+        }
+        // Ranges before a failing one parsed completely, so its error is the first in the file
+        for (Future<Chunk> future : pool.invokeAll(tasks)) {
+            Chunk chunk = getResult(future);
+            users_list.addAll(chunk.users);
+            RECORDS.add(chunk.users.size());
+            if (chunk.error != null) {
+                throw chunk.error;
             }
         }
+        PARSE_TIME.recordSince(start);
         return users_list;
     }
+
+    /**
+     * Returns the first line start at or after {@code offset}, or the file
+     * size if it is at or past the content end.
+     */
+    private static long lineStart(FileChannel channel, long offset, long end, long size) throws IOException {
+        long lineStart = LineReader.nextLineStart(channel, offset - 1, size);
+        return lineStart >= end ? size : lineStart;
+    }
+
+    /**
+     * Parses the records in the byte range {@code [from, to)}, which starts
+     * at a record and, unless it runs to the end of the file, ends at one.
+     */
+    private Chunk parseChunk(Path file, Charset charset, long from, long to, long linesBefore) {
+        Chunk chunk = new Chunk();
+        if (from == to) {
+            return chunk;
+        }
+        try (LineReader lines = LineReader.map(file, charset, from, to)) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                int lineNumber = (int) (linesBefore + lines.getLineNumber());
+                chunk.users.add(parseRecord(line, lineNumber, lines.readLine()));
+            }
+        } catch (Exception e) {
+            chunk.error = e;
+        }
+        return chunk;
+    }
+
+    /**
+     * Validates a record and only then interns its liked movie IDs, all in
+     * one pass, so a rejected record adds nothing to the symbol table.
+     */
+    private User parseRecord(String line, int lineNumber, String likedMovies) throws Exception {
+        String[] parts = line.split(",");
+        if (parts.length != 2) {
+            throw new UserException("Invalid user data format at line " + lineNumber);
+        }
+        User.validate(parts[0], parts[1]);
+        String[] liked = likedMovies != null ? likedMovies.split(",") : null;
+        if (liked == null || !Validator.hasDigit(liked[0])) {
+            throw new UserException("Liked movies are invalid for user " + parts[1]);
+        }
+        return User.restore(parts[0], parts[1], SymbolList.intern(SymbolTable.MOVIE_IDS, Arrays.asList(liked)));
+    }
+
+    private static <T> T getResult(Future<T> future) throws Exception {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Chunk {
+        List<User> users = new ArrayList<>();
+        Exception error;
+    }
 }
@@ -0,0 +1,188 @@
+package com.example;
+
+import java.util.regex.Pattern;
+
+/**
+ * Field validation rules for movies and users.
+ * Each rule gives exactly the same result as the regular expression it
+ * replaces, but uses either a pattern compiled once or a single pass over the
+ * characters, so validating a record compiles no patterns and allocates
+ * little or nothing.
+ */
+public final class Validator {
+
+    // Removed, in this order, from a title before its format is checked
+    private static final Pattern SPACE_DIGIT = Pattern.compile(" [0-9]");
+    private static final Pattern DIGIT_SPACE = Pattern.compile("[0-9] ");
+    private static final Pattern DIGIT = Pattern.compile("[0-9]");
+
+    private Validator() {
+    }
+
+    /**
+     * Checks a movie title: once digits are stripped, every word must be one
+     * uppercase letter followed by lowercase letters, with single whitespace
+     * characters between words. Same as stripping {@code " [0-9]"},
+     * {@code "[0-9] "} and {@code "[0-9]"} and then matching
+     * {@code ^([A-Z][a-z]*)(\s[A-Z][a-z]*)*$}.
+     */
+    public static boolean isValidTitle(String title) {
+        String stripped = title;
+        if (containsAsciiDigit(title)) {
+            stripped = SPACE_DIGIT.matcher(stripped).replaceAll("");
+            stripped = DIGIT_SPACE.matcher(stripped).replaceAll("");
+            stripped = DIGIT.matcher(stripped).replaceAll("");
+        }
+        int length = stripped.length();
+        int i = 0;
+        while (true) {
+            // A word: one uppercase letter then any lowercase letters
+            if (i == length || !isUpper(stripped.charAt(i))) {
+                return false;
+            }
+            i++;
+            while (i < length && isLower(stripped.charAt(i))) {
+                i++;
+            }
+            if (i == length) {
+                return true;
+            }
+            // A single whitespace character must come before the next word
+            if (!isWhitespace(stripped.charAt(i))) {
+                return false;
+            }
+            i++;
+        }
+    }
+
+    /**
+     * Checks a movie ID against its title: the uppercase letters of the ID
+     * must be the uppercase letters of the title, in order, and the ID must
+     * contain exactly three digits.
+     */
+    public static boolean isValidMovieId(String title, String id) {
+        int t = 0;
+        int digits = 0;
+        for (int i = 0; i < id.length(); i++) {
+            char c = id.charAt(i);
+            if (isDigit(c)) {
+                digits++;
+            } else if (isUpper(c)) {
+                t = nextUpper(title, t);
+                if (t == title.length() || title.charAt(t) != c) {
+                    return false;
+                }
+                t++;
+            }
+        }
+        return nextUpper(title, t) == title.length() && digits == 3;
+    }
+
+    /**
+     * Checks a user name: a letter followed by letters and whitespace. Same as
+     * matching {@code [A-Za-z][A-Za-z\s]*}.
+     */
+    public static boolean isValidUserName(String name) {
+        int length = name.length();
+        if (length == 0 || !isLetter(name.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < length; i++) {
+            char c = name.charAt(i);
+            if (!isLetter(c) && !isWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks a user ID: digits, optionally ending with one letter. Same as
+     * matching {@code [0-9]+[A-Za-z]?}; the length is checked separately.
+     */
+    public static boolean isValidUserId(String id) {
+        int length = id.length();
+        if (length > 0 && isLetter(id.charAt(length - 1))) {
+            length--;
+        }
+        if (length == 0) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (!isDigit(id.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Same as {@code s.matches(".*\\d.*")}: true when the string contains a
+     * digit and, since {@code .} does not match line terminators, no line
+     * terminator.
+     */
+    public static boolean hasDigit(String s) {
+        boolean digit = false;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (isDigit(c)) {
+                digit = true;
+            } else if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+        }
+        return digit;
+    }
+
+    /**
+     * Returns the digits of a string in order. Same as
+     * {@code s.replaceAll("\\D+", "")}.
+     */
+    public static String digits(String s) {
+        StringBuilder digits = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (isDigit(c)) {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static int nextUpper(String s, int from) {
+        while (from < s.length() && !isUpper(s.charAt(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private static boolean containsAsciiDigit(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (isDigit(s.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isLower(char c) {
+        return c >= 'a' && c <= 'z';
+    }
+
+    private static boolean isLetter(char c) {
+        return isUpper(c) || isLower(c);
+    }
+
+    // The characters matched by \s
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
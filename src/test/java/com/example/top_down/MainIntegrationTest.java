@@ -1,9 +1,11 @@
 package com.example.top_down;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.anyString;
+import org.mockito.InOrder;
 import org.mockito.Mockito;
 
 import com.example.DataStore;
@@ -16,6 +18,7 @@ import com.example.Recommender;
 import com.example.User;
 
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -63,4 +66,43 @@ class MainIntegrationTest {
         verify(recommender).recommendMovies(user);
         verify(writer).writeRecommendations(user, List.of(movie));
     }
+
+    @Test
+    void testMainParallelKeepsInputOrder() throws Exception {
+
+        Parser parser = mock(Parser.class);
+        ParseResult parseResult = mock(ParseResult.class);
+        DataStore dataStore = mock(DataStore.class);
+        Recommender recommender = mock(Recommender.class);
+        RecommendationWriter writer = mock(RecommendationWriter.class);
+
+        Movie movie = new Movie("The Matrix","TM001" ,List.of("Action","Sci-Fi","Thriller"));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            User user = new User("Mohamed", String.format("%09d", i), List.of("TM001"));
+            users.add(user);
+            when(recommender.recommendMovies(user)).thenReturn(i % 2 == 0 ? List.of(movie) : List.of());
+        }
+
+        when(parser.parse()).thenReturn(parseResult);
+        when(dataStore.getUsers()).thenReturn(users);
+
+        Main main = Mockito.spy(new Main(4));
+
+        doReturn(parser).when(main)
+                .createParser(anyString(), anyString());
+        doReturn(dataStore).when(main)
+                .createDataStore(parseResult);
+        doReturn(recommender).when(main)
+                .createRecommender(dataStore);
+        doReturn(writer).when(main)
+                .createWriter(anyString());
+
+        main.run("users.txt", "movies.txt", "out.txt");
+
+        InOrder inOrder = inOrder(writer);
+        for (int i = 0; i < users.size(); i++) {
+            inOrder.verify(writer).writeRecommendations(users.get(i), i % 2 == 0 ? List.of(movie) : List.of());
+        }
+    }
 }
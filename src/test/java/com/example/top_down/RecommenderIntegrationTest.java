@@ -1,5 +1,6 @@
 package com.example.top_down;
 
+import java.util.BitSet;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -11,6 +12,7 @@ import com.example.DataStore;
 import com.example.Movie;
 import com.example.MovieException;
 import com.example.Recommender;
+import com.example.SymbolTable;
 import com.example.User;
 import com.example.UserException;
 
@@ -49,9 +51,20 @@ class RecommenderIntegrationTest {
                 List.of("Drama")
         );
 
+        when(dataStore.snapshot())
+                .thenReturn(dataStore);
+
         when(dataStore.getMovieById("TM001"))
                 .thenReturn(likedMovie);
 
+        // Genre posting lists, by genre ordinal: positions of the movies in getMovies()
+        when(dataStore.getGenrePostings(genre("Action")))
+                .thenReturn(positions(0, 2));
+        when(dataStore.getGenrePostings(genre("Sci-Fi")))
+                .thenReturn(positions(0, 2));
+        when(dataStore.getGenrePostings(genre("Thriller")))
+                .thenReturn(positions(0));
+
         when(dataStore.getMovies())
                 .thenReturn(List.of(
                         likedMovie,
@@ -70,6 +83,19 @@ class RecommenderIntegrationTest {
         assertFalse(recommendations.contains(unrelatedMovie));
 
         verify(dataStore).getMovieById("TM001");
+        verify(dataStore).getGenrePostings(genre("Action"));
         verify(dataStore).getMovies();
     }
+
+    private static int genre(String name) {
+        return SymbolTable.GENRES.lookup(name);
+    }
+
+    private static BitSet positions(int... indexes) {
+        BitSet bits = new BitSet();
+        for (int index : indexes) {
+            bits.set(index);
+        }
+        return bits;
+    }
 }
\ No newline at end of file
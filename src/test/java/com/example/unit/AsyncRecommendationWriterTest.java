@@ -0,0 +1,102 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import com.example.AsyncRecommendationWriter;
+import com.example.Movie;
+import com.example.RecommendationWriter;
+import com.example.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+public class AsyncRecommendationWriterTest {
+    private RecommendationWriter writer;
+    private User user1;
+    private User user2;
+    private Movie movie;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        writer = mock(RecommendationWriter.class);
+        user1 = new User("John Doe", "123456789", new ArrayList<>());
+        user2 = new User("Jane Smith", "987654321", new ArrayList<>());
+        movie = new Movie("The Matrix", "TM123", List.of("Action"));
+    }
+
+    @Test
+    void writesInQueueOrderWhenResultsFinishOutOfOrder() throws Exception {
+        CompletableFuture<List<Movie>> first = new CompletableFuture<>();
+        CompletableFuture<List<Movie>> second = new CompletableFuture<>();
+        List<User> written = new ArrayList<>();
+
+        try (AsyncRecommendationWriter output = new AsyncRecommendationWriter(writer, 4, written::add)) {
+            output.write(user1, first);
+            output.write(user2, second);
+            second.complete(List.of());
+            first.complete(List.of(movie));
+        }
+
+        InOrder inOrder = inOrder(writer);
+        inOrder.verify(writer).writeRecommendations(user1, List.of(movie));
+        inOrder.verify(writer).writeRecommendations(user2, List.of());
+        assertEquals(List.of(user1, user2), written);
+    }
+
+    @Test
+    void computationFailureIsRethrownOnClose() throws Exception {
+        CompletableFuture<List<Movie>> failed = new CompletableFuture<>();
+
+        AsyncRecommendationWriter output = new AsyncRecommendationWriter(writer, 4, null);
+        output.write(user1, failed);
+        output.write(user2, List.of(movie));
+        // Fail only after both are queued, so neither write sees the failure
+        failed.completeExceptionally(new IllegalStateException("boom"));
+
+        Exception exception = assertThrows(IllegalStateException.class, output::close);
+        assertEquals("boom", exception.getMessage());
+        // Nothing is written after the failure
+        verify(writer, never()).writeRecommendations(user2, List.of(movie));
+    }
+
+    @Test
+    void writeFailureStopsFurtherWrites() throws Exception {
+        doThrow(new RuntimeException("disk full")).when(writer).writeRecommendations(user1, List.of());
+
+        AsyncRecommendationWriter output = new AsyncRecommendationWriter(writer, 1, null);
+        output.write(user1, List.of());
+        // Later writes fail fast once the writer thread has seen the failure
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            for (int i = 0; i < 1000; i++) {
+                output.write(user2, List.of());
+                Thread.sleep(1);
+            }
+        });
+        assertEquals("disk full", exception.getMessage());
+        // The failure was reported by write, so close does not report it again
+        assertDoesNotThrow(output::close);
+    }
+
+    @Test
+    void failureIsReportedOnceThroughTryWithResources() throws Exception {
+        doThrow(new RuntimeException("disk full")).when(writer).writeRecommendations(user1, List.of());
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            try (AsyncRecommendationWriter output = new AsyncRecommendationWriter(writer, 1, null)) {
+                output.write(user1, List.of());
+                for (int i = 0; i < 1000; i++) {
+                    output.write(user2, List.of());
+                    Thread.sleep(1);
+                }
+            }
+        });
+        assertEquals("disk full", exception.getMessage());
+        assertEquals(0, exception.getSuppressed().length);
+    }
+}
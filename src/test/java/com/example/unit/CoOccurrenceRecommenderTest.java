@@ -0,0 +1,69 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.CoOccurrenceRecommender;
+import com.example.DataStore;
+import com.example.Movie;
+import com.example.User;
+
+import java.util.List;
+
+public class CoOccurrenceRecommenderTest {
+    private DataStore dataStore;
+    private Movie matrix;
+    private Movie inception;
+    private Movie avatar;
+    private Movie titanic;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataStore = new DataStore();
+        matrix = new Movie("The Matrix", "TM301", List.of("Action"));
+        inception = new Movie("Inception", "I302", List.of("Thriller"));
+        avatar = new Movie("Avatar", "A303", List.of("Adventure"));
+        titanic = new Movie("Titanic", "T304", List.of("Romance"));
+        dataStore.addMovie(matrix);
+        dataStore.addMovie(inception);
+        dataStore.addMovie(avatar);
+        dataStore.addMovie(titanic);
+
+        // The Matrix is liked with Inception three times and with Avatar once
+        dataStore.addUser(new User("User A", "100000001", List.of("TM301", "I302")));
+        dataStore.addUser(new User("User B", "100000002", List.of("TM301", "I302", "A303")));
+        dataStore.addUser(new User("User C", "100000003", List.of("I302", "TM301")));
+        dataStore.addUser(new User("User D", "100000004", List.of("T304")));
+    }
+
+    @Test
+    void recommendsCoLikedMoviesByScore() throws Exception {
+        CoOccurrenceRecommender recommender = new CoOccurrenceRecommender(dataStore, 5);
+        User user = new User("New User", "100000005", List.of("TM301"));
+
+        // Not the genre-matched Titanic, which is never liked with The Matrix
+        assertEquals(List.of(inception, avatar), recommender.recommendMovies(user));
+        assertEquals(List.of(inception), recommender.recommendTopMovies(user, 1));
+    }
+
+    @Test
+    void scoresAddUpAcrossLikedMovies() throws Exception {
+        CoOccurrenceRecommender recommender = new CoOccurrenceRecommender(dataStore, 5);
+        User user = new User("New User", "100000005", List.of("I302", "A303"));
+
+        // The Matrix: 3 with Inception + 1 with Avatar; liked movies are left out
+        assertEquals(List.of(matrix), recommender.recommendMovies(user));
+    }
+
+    @Test
+    void neighborListsArePruned() throws Exception {
+        CoOccurrenceRecommender recommender = new CoOccurrenceRecommender(dataStore, 1);
+        User user = new User("New User", "100000005", List.of("TM301"));
+
+        assertEquals(List.of(inception), recommender.recommendMovies(user));
+        assertTrue(recommender.recommendMovies(new User("Lonely User", "100000006", List.of("T304"))).isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> new CoOccurrenceRecommender(dataStore, 0));
+    }
+}
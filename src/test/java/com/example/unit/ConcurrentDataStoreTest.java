@@ -0,0 +1,123 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.ConcurrentDataStore;
+import com.example.DataIntegrityException;
+import com.example.DataStore;
+import com.example.Movie;
+import com.example.Recommender;
+import com.example.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ConcurrentDataStoreTest {
+    private ConcurrentDataStore dataStore;
+    private Movie matrix;
+    private Movie titanic;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataStore = new ConcurrentDataStore();
+        matrix = new Movie("The Matrix", "TM601", List.of("Action"));
+        titanic = new Movie("Titanic", "T602", List.of("Romance"));
+        dataStore.addMovie(matrix);
+        dataStore.addMovie(titanic);
+        dataStore.addUser(new User("John Doe", "600000001", List.of("TM601")));
+    }
+
+    @Test
+    void readsSeeAddedMoviesAndUsers() {
+        assertEquals(List.of(matrix, titanic), dataStore.getMovies());
+        assertSame(titanic, dataStore.getMovieById("T602"));
+        assertEquals("John Doe", dataStore.getUserById("600000001").getName());
+        assertEquals(1, dataStore.getUsers().size());
+        assertTrue(dataStore.getGenrePostings("Romance").get(1));
+        assertEquals(2, dataStore.getVersion());
+    }
+
+    @Test
+    void snapshotIsNotChangedByLaterWrites() throws Exception {
+        DataStore snapshot = dataStore.snapshot();
+        Movie inception = new Movie("Inception", "I603", List.of("Action"));
+        dataStore.addMovie(inception);
+
+        assertEquals(List.of(matrix, titanic), snapshot.getMovies());
+        assertNull(snapshot.getMovieById("I603"));
+        assertEquals(1, snapshot.getGenrePostings("Action").cardinality());
+        assertEquals(2, dataStore.getGenrePostings("Action").cardinality());
+        assertNotEquals(snapshot.getVersion(), dataStore.getVersion());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.addMovie(inception));
+        assertThrows(UnsupportedOperationException.class, () -> dataStore.getMovies().add(inception));
+    }
+
+    @Test
+    void writesAreValidatedLikeDataStore() throws Exception {
+        assertThrows(DataIntegrityException.class,
+                () -> dataStore.addMovie(new Movie("Heat", "H601", List.of("Action"))));
+        assertThrows(DataIntegrityException.class,
+                () -> dataStore.addUser(new User("Jane Doe", "600000002", List.of("X699"))));
+        assertThrows(DataIntegrityException.class,
+                () -> dataStore.addUser(new User("John Smith", "600000001", List.of())));
+        assertEquals(2, dataStore.getMovies().size());
+        assertEquals(1, dataStore.getUsers().size());
+    }
+
+    @Test
+    void copiesExistingDataStore() throws Exception {
+        DataStore plain = new DataStore();
+        plain.addMovie(new Movie("Inception", "I611", List.of("Action", "Thriller")));
+        plain.addUser(new User("Jane Doe", "600000011", List.of("I611")));
+        ConcurrentDataStore copy = new ConcurrentDataStore(plain);
+        plain.addMovie(new Movie("Heat", "H612", List.of("Action")));
+
+        assertEquals(1, copy.getMovies().size());
+        assertEquals(1, copy.getGenrePostings("Action").cardinality());
+        assertNotNull(copy.getUserById("600000011"));
+        assertThrows(DataIntegrityException.class,
+                () -> copy.addMovie(new Movie("Speed", "S611", List.of("Action"))));
+    }
+
+    @Test
+    void recommendingWhileMoviesAreAdded() throws Exception {
+        Recommender recommender = new Recommender(dataStore, 16);
+        User user = dataStore.getUserById("600000001");
+        AtomicBoolean writing = new AtomicBoolean(true);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 3; r++) {
+                readers.add(pool.submit(() -> {
+                    int seen = 0;
+                    while (writing.get()) {
+                        List<Movie> recommendations = recommender.recommendMovies(user);
+                        // Movies are only added, so each reader sees the catalog grow
+                        assertTrue(recommendations.size() >= seen);
+                        seen = recommendations.size();
+                    }
+                    return null;
+                }));
+            }
+            for (int i = 0; i < 300; i++) {
+                dataStore.addMovie(new Movie("Action Movie", "AM" + (100 + i), List.of("Action")));
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(300, recommender.recommendMovies(user).size());
+    }
+}
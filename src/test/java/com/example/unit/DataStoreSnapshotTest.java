@@ -0,0 +1,108 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.DataStore;
+import com.example.DataStoreSnapshot;
+import com.example.Movie;
+import com.example.User;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+public class DataStoreSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    private DataStore dataStore;
+    private String snapshot;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataStore = new DataStore();
+        dataStore.addMovie(new Movie("The Matrix", "TM123", Arrays.asList("Action", "Sci-Fi")));
+        dataStore.addMovie(new Movie("Inception", "I456", Arrays.asList("Action", "Thriller")));
+        dataStore.addMovie(new Movie("Avatar", "A789", Arrays.asList("Romance")));
+        dataStore.addUser(new User("John Doe", "123456789", Arrays.asList("TM123", "A789")));
+        dataStore.addUser(new User("Jane Smith", "12345678A", Arrays.asList("I456")));
+        snapshot = tempDir.resolve("store.snapshot").toString();
+    }
+
+    @Test
+    @DisplayName("Snapshot round trip restores movies, users and indexes")
+    void testRoundTrip() throws Exception {
+        DataStoreSnapshot.write(dataStore, 42, snapshot);
+        DataStore loaded = DataStoreSnapshot.read(snapshot, 42);
+
+        assertNotNull(loaded);
+        assertEquals(3, loaded.getMovies().size());
+        Movie avatar = loaded.getMovies().get(2);
+        assertEquals("Avatar", avatar.getTitle());
+        assertEquals("A789", avatar.getId());
+        assertEquals(List.of("Romance"), avatar.getGenres());
+        assertSame(avatar, loaded.getMovieById("A789"));
+
+        assertEquals(2, loaded.getUsers().size());
+        User john = loaded.getUserById("123456789");
+        assertEquals("John Doe", john.getName());
+        assertEquals(List.of("TM123", "A789"), john.getLikedMovies());
+
+        BitSet action = new BitSet();
+        action.set(0, 2);
+        assertEquals(action, loaded.getGenrePostings("Action"));
+    }
+
+    @Test
+    @DisplayName("Snapshot of other inputs or a missing snapshot is not loaded")
+    void testStaleSnapshot() throws Exception {
+        assertNull(DataStoreSnapshot.read(snapshot, 42));
+
+        DataStoreSnapshot.write(dataStore, 42, snapshot);
+        assertNull(DataStoreSnapshot.read(snapshot, 43));
+    }
+
+    @Test
+    @DisplayName("Damaged snapshot is rejected")
+    void testCorruptSnapshot() throws Exception {
+        DataStoreSnapshot.write(dataStore, 42, snapshot);
+        byte[] bytes = Files.readAllBytes(Path.of(snapshot));
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(Path.of(snapshot), bytes);
+
+        assertThrows(IOException.class, () -> DataStoreSnapshot.read(snapshot, 42));
+
+        Files.write(Path.of(snapshot), Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> DataStoreSnapshot.read(snapshot, 42));
+    }
+
+    @Test
+    @DisplayName("Failed write leaves no temporary file behind")
+    void testFailedWriteRemovesTemporaryFile() throws Exception {
+        // A non-empty directory cannot be replaced by the finished snapshot
+        Files.createDirectory(Path.of(snapshot));
+        Files.writeString(Path.of(snapshot, "keep.txt"), "keep");
+
+        assertThrows(IOException.class, () -> DataStoreSnapshot.write(dataStore, 42, snapshot));
+        assertFalse(Files.exists(Path.of(snapshot + ".tmp")));
+    }
+
+    @Test
+    @DisplayName("Fingerprint changes when an input file changes")
+    void testFingerprint() throws Exception {
+        Path users = tempDir.resolve("users.txt");
+        Files.writeString(users, "John Doe,123456789\nTM123\n");
+        long before = DataStoreSnapshot.fingerprint(users.toString());
+
+        Files.writeString(users, "John Doe,123456789\nTM123,I456\n");
+        assertNotEquals(before, DataStoreSnapshot.fingerprint(users.toString()));
+    }
+}
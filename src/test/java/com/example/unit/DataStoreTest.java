@@ -14,6 +14,7 @@ import com.example.UserException;
 import org.junit.jupiter.api.DisplayName;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 
 public class DataStoreTest {
@@ -148,6 +149,30 @@ public class DataStoreTest {
         assertNull(movie);
     }
 
+    @Test
+    @DisplayName("Get movie by ID - movie added after construction")
+    void testGetMovieByIdAfterAddMovie() throws Exception {
+        Movie newMovie = new Movie("Interstellar", "I824", Arrays.asList("Sci-Fi", "Drama"));
+        dataStore.addMovie(newMovie);
+
+        assertSame(newMovie, dataStore.getMovieById("I824"));
+        assertNull(dataStore.getMovieById("I825"));
+    }
+
+    @Test
+    @DisplayName("Genre postings hold catalog positions of movies with the genre")
+    void testGenrePostings() throws Exception {
+        dataStore.addMovie(new Movie("Interstellar", "I824", Arrays.asList("Sci-Fi", "Drama")));
+
+        BitSet sciFi = dataStore.getGenrePostings("Sci-Fi");
+        assertEquals(3, sciFi.cardinality());
+        assertTrue(sciFi.get(0));
+        assertTrue(sciFi.get(2));
+        assertTrue(sciFi.get(3));
+        assertEquals(BitSet.valueOf(new long[] {0b1000}), dataStore.getGenrePostings("Drama"));
+        assertTrue(dataStore.getGenrePostings("Western").isEmpty());
+    }
+
     @Test
     @DisplayName("Get all movies")
     void testGetAllMovies() {
@@ -174,6 +199,29 @@ public class DataStoreTest {
         assertEquals(2, allUsers.size());
     }
 
+    @Test
+    @DisplayName("Get user by ID")
+    void testGetUserById() throws Exception {
+        User user = new User("John Doe", "123456789", 
+                           new ArrayList<>(Arrays.asList("TM123")));
+        dataStore.addUser(user);
+
+        assertSame(user, dataStore.getUserById("123456789"));
+        assertNull(dataStore.getUserById("987654321"));
+    }
+
+    @Test
+    @DisplayName("Rejected user is not indexed")
+    void testRejectedUserNotIndexed() throws Exception {
+        User user = new User("John Doe", "123456789", 
+                           new ArrayList<>(Arrays.asList("INVALID999")));
+
+        assertThrows(DataIntegrityException.class, () -> dataStore.addUser(user));
+
+        assertNull(dataStore.getUserById("123456789"));
+        assertEquals(0, dataStore.getUsers().size());
+    }
+
     @Test
     @DisplayName("User data integrity check - valid movie IDs")
     void testIntegrityCheckWithValidMovieIds() throws Exception {
@@ -280,6 +328,17 @@ public class DataStoreTest {
         assertEquals("Movie Id numbers MT824 aren't unique", exception.getMessage());
     }
 
+    @Test
+    @DisplayName("Rejected duplicate movie is not stored")
+    void testRejectedDuplicateMovieNotStored() throws Exception {
+        Movie duplicate = new Movie("The Mask", "TM123", Arrays.asList("Comedy"));
+
+        assertThrows(DataIntegrityException.class, () -> dataStore.addMovie(duplicate));
+
+        assertEquals(3, dataStore.getMovies().size());
+        assertEquals("The Matrix", dataStore.getMovieById("TM123").getTitle());
+    }
+
     @Test
     void testDataStoreWithParseResult() throws Exception {
         List<User> testUsers = new ArrayList<>();
@@ -0,0 +1,103 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.DataStore;
+import com.example.DatasetGenerator;
+import com.example.Movie;
+import com.example.MovieParser;
+import com.example.ParseResult;
+import com.example.User;
+import com.example.UserParser;
+
+public class DatasetGeneratorTest {
+
+    private static String movies(DatasetGenerator generator) throws Exception {
+        StringWriter out = new StringWriter();
+        generator.writeMovies(out);
+        return out.toString();
+    }
+
+    private static String users(DatasetGenerator generator, int count) throws Exception {
+        StringWriter out = new StringWriter();
+        generator.writeUsers(out, count);
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("Generated files parse and load into a data store")
+    void testGeneratedDataIsValid() throws Exception {
+        DatasetGenerator generator = new DatasetGenerator(1000, 30, 1.2, 7, 7);
+
+        List<Movie> movies = new MovieParser().parseMovies(movies(generator));
+        List<User> users = new UserParser().parseUsers(users(generator, 2000));
+        DataStore dataStore = assertDoesNotThrow(() -> new DataStore(new ParseResult(movies, users)));
+
+        assertEquals(1000, dataStore.getMovies().size());
+        assertEquals(2000, dataStore.getUsers().size());
+        for (User user : users) {
+            assertEquals(7, user.getLikedMovies().size());
+            assertEquals(7, user.getLikedMovies().stream().distinct().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Same settings and seed give the same files")
+    void testDeterministic() throws Exception {
+        DatasetGenerator first = new DatasetGenerator(200, 10, 1.0, 3, 99);
+        DatasetGenerator second = new DatasetGenerator(200, 10, 1.0, 3, 99);
+
+        assertEquals(movies(first), movies(second));
+        assertEquals(users(first, 500), users(second, 500));
+        assertNotEquals(movies(first), movies(new DatasetGenerator(200, 10, 1.0, 3, 100)));
+    }
+
+    @Test
+    @DisplayName("Genre skew makes the first genres the most common")
+    void testGenreSkew() throws Exception {
+        List<Movie> movies = new MovieParser().parseMovies(movies(new DatasetGenerator(1000, 20, 2.0, 1, 1)));
+        Map<String, Integer> counts = new HashMap<>();
+        for (Movie movie : movies) {
+            for (String genre : movie.getGenres()) {
+                counts.merge(genre, 1, Integer::sum);
+            }
+        }
+
+        assertTrue(counts.get("Genrea") > counts.getOrDefault("Genret", 0));
+    }
+
+    @Test
+    @DisplayName("Movies get distinct genres even when the skew leaves others almost no weight")
+    void testLargeGenreSkew() throws Exception {
+        String text = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                () -> movies(new DatasetGenerator(500, 10, 100.0, 1, 3)));
+        List<Movie> movies = new MovieParser().parseMovies(text);
+
+        assertEquals(500, movies.size());
+        for (Movie movie : movies) {
+            assertEquals(movie.getGenres().size(), movie.getGenres().stream().distinct().count());
+        }
+    }
+
+    @Test
+    @DisplayName("Catalogs larger than the 3-digit ID space are rejected")
+    void testTooManyMovies() {
+        assertThrows(IllegalArgumentException.class, () -> new DatasetGenerator(1001, 10, 1.0, 3, 1));
+        assertThrows(IllegalArgumentException.class, () -> new DatasetGenerator(10, 10, 1.0, 11, 1));
+    }
+
+    @Test
+    @DisplayName("Users with no liked movies are rejected, since they would not parse")
+    void testNoLikesRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new DatasetGenerator(10, 10, 1.0, 0, 1));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.DataStore;
+import com.example.Movie;
+import com.example.ParseResult;
+import com.example.Parser;
+import com.example.RecommendationWriter;
+import com.example.Recommender;
+import com.example.User;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+public class EventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void pipelineStagesEmitFlightRecorderEvents() throws Exception {
+        Path movies = tempDir.resolve("movies.txt");
+        Path users = tempDir.resolve("users.txt");
+        Path output = tempDir.resolve("recommendations.txt");
+        Files.writeString(movies, "The Matrix,TM123\nAction\nInception,I456\nAction\n");
+        Files.writeString(users, "John Doe,123456789\nTM123\n");
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.example.ParseFile");
+            recording.enable("com.example.DataStoreBuild");
+            recording.enable("com.example.Recommend").withThreshold(Duration.ZERO);
+            recording.enable("com.example.WriterFlush");
+            recording.start();
+
+            ParseResult parsed = new Parser(users.toString(), movies.toString()).parse();
+            DataStore dataStore = new DataStore(parsed);
+            User user = dataStore.getUsers().get(0);
+            List<Movie> recommendations = new Recommender(dataStore).recommendMovies(user);
+            try (RecommendationWriter writer = new RecommendationWriter(output.toString())) {
+                writer.open();
+                writer.writeRecommendations(user, recommendations);
+            }
+
+            recording.stop();
+            Path file = tempDir.resolve("recording.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        List<RecordedEvent> parses = named(events, "com.example.ParseFile");
+        assertEquals(2, parses.size());
+        assertEquals(2, parses.get(0).getInt("records"));
+        assertEquals(users.toString(), parses.get(1).getString("file"));
+
+        RecordedEvent build = named(events, "com.example.DataStoreBuild").get(0);
+        assertEquals(2, build.getInt("movies"));
+        assertEquals(1, build.getInt("users"));
+
+        RecordedEvent recommend = named(events, "com.example.Recommend").get(0);
+        assertEquals("123456789", recommend.getString("userId"));
+        assertEquals(1, recommend.getInt("liked"));
+        assertEquals(2, recommend.getInt("candidates")); // The liked movie shares its own genre
+        assertEquals(1, recommend.getInt("results"));
+
+        List<RecordedEvent> flushes = named(events, "com.example.WriterFlush");
+        assertEquals(1, flushes.size()); // The session buffer drains once, on close
+        assertEquals(Files.size(output), flushes.get(0).getLong("bytes"));
+    }
+
+    @Test
+    void fullAndTopRecommendationsReportTheSameCandidates() throws Exception {
+        DataStore dataStore = new DataStore();
+        dataStore.addMovie(new Movie("The Matrix", "TM131", List.of("Action")));
+        dataStore.addMovie(new Movie("Inception", "I132", List.of("Action")));
+        dataStore.addMovie(new Movie("Titanic", "T133", List.of("Romance")));
+        User user = new User("John Doe", "123456781", List.of("TM131"));
+        dataStore.addUser(user);
+        Recommender recommender = new Recommender(dataStore);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable("com.example.Recommend").withThreshold(Duration.ZERO);
+            recording.start();
+
+            recommender.recommendMovies(user);
+            recommender.recommendTopMovies(user, 1);
+            recommender.recommendTopMovies(user, 0);
+
+            recording.stop();
+            Path file = tempDir.resolve("recording.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        List<RecordedEvent> recommends = named(events, "com.example.Recommend");
+        assertEquals(3, recommends.size());
+        for (RecordedEvent recommend : recommends) {
+            assertEquals(2, recommend.getInt("candidates")); // The liked movie and Inception
+        }
+        assertEquals(List.of(1, 1, 0),
+                recommends.stream().map(recommend -> recommend.getInt("results")).collect(Collectors.toList()));
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
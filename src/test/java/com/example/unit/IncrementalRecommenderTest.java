@@ -0,0 +1,87 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.DataIntegrityException;
+import com.example.DataStore;
+import com.example.IncrementalRecommender;
+import com.example.Movie;
+import com.example.Recommender;
+import com.example.User;
+
+import java.util.List;
+
+public class IncrementalRecommenderTest {
+    private DataStore dataStore;
+    private Movie matrix;
+    private Movie inception;
+    private Movie titanic;
+    private Movie notebook;
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataStore = new DataStore();
+        matrix = new Movie("The Matrix", "TM501", List.of("Action"));
+        inception = new Movie("Inception", "I502", List.of("Action", "Thriller"));
+        titanic = new Movie("Titanic", "T503", List.of("Romance"));
+        notebook = new Movie("The Notebook", "TN504", List.of("Romance", "Drama"));
+        dataStore.addMovie(matrix);
+        dataStore.addMovie(inception);
+        dataStore.addMovie(titanic);
+        dataStore.addMovie(notebook);
+        user = new User("John Doe", "500000001", List.of("TM501"));
+        dataStore.addUser(user);
+    }
+
+    @Test
+    void newLikeAddsItsGenresAndExcludesTheMovie() throws Exception {
+        IncrementalRecommender recommender = new IncrementalRecommender(dataStore);
+        assertEquals(List.of(inception), recommender.recommendMovies(user));
+
+        assertEquals(List.of(inception, notebook), recommender.addLike(user, "T503"));
+        assertEquals(List.of(inception, notebook), recommender.recommendMovies(user));
+        assertEquals(List.of("TM501", "T503"), user.getLikedMovies());
+    }
+
+    @Test
+    void matchesFullRecomputationAfterEachLike() throws Exception {
+        IncrementalRecommender recommender = new IncrementalRecommender(dataStore);
+        Recommender full = new Recommender(dataStore);
+        for (String id : List.of("I502", "TN504", "T503")) {
+            assertEquals(full.recommendMovies(user), recommender.recommendMovies(user));
+            recommender.addLike(user, id);
+        }
+        assertEquals(full.recommendMovies(user), recommender.recommendMovies(user));
+        assertTrue(recommender.recommendMovies(user).isEmpty());
+    }
+
+    @Test
+    void stateIsRebuiltWhenCatalogChanges() throws Exception {
+        IncrementalRecommender recommender = new IncrementalRecommender(dataStore);
+        recommender.addLike(user, "T503");
+        Movie heat = new Movie("Heat", "H505", List.of("Action"));
+        dataStore.addMovie(heat);
+
+        assertEquals(List.of(inception, notebook, heat), recommender.recommendMovies(user));
+    }
+
+    @Test
+    void likingAgainChangesNothing() throws Exception {
+        IncrementalRecommender recommender = new IncrementalRecommender(dataStore);
+
+        assertEquals(List.of(inception), recommender.addLike(user, "TM501"));
+        assertEquals(List.of("TM501"), user.getLikedMovies());
+    }
+
+    @Test
+    void unknownMovieIsRejectedWithoutChangingUser() {
+        IncrementalRecommender recommender = new IncrementalRecommender(dataStore);
+
+        assertThrows(DataIntegrityException.class, () -> recommender.addLike(user, "X599"));
+        assertEquals(List.of("TM501"), user.getLikedMovies());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.LineReader;
+
+public class LineReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static List<String> readAll(String text) throws Exception {
+        return readAll(new LineReader(new StringReader(text)));
+    }
+
+    private static List<String> readAll(LineReader reader) throws Exception {
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lines.add(line);
+            assertEquals(lines.size(), reader.getLineNumber());
+        }
+        return lines;
+    }
+
+    private static void assertSplitsLike(String text) throws Exception {
+        assertEquals(Arrays.asList(text.split("\n")), readAll(text), "input: " + text.replace("\n", "\\n"));
+    }
+
+    @Test
+    @DisplayName("Lines match String.split on newline")
+    void testMatchesSplit() throws Exception {
+        assertSplitsLike("");
+        assertSplitsLike("\n");
+        assertSplitsLike("\n\n\n");
+        assertSplitsLike("abc");
+        assertSplitsLike("abc\n");
+        assertSplitsLike("abc\n\n\n");
+        assertSplitsLike("\nabc");
+        assertSplitsLike("a\n\nb\n\n\nc\n");
+        assertSplitsLike("a\r\nb\r\n");
+    }
+
+    @Test
+    @DisplayName("Lines longer than the read buffer are returned whole")
+    void testLongLine() throws Exception {
+        String longLine = "x".repeat(20_000);
+        assertSplitsLike(longLine + "\n" + longLine + "y\n\nz");
+    }
+
+    @Test
+    @DisplayName("Random inputs match String.split on newline")
+    void testRandomInputs() throws Exception {
+        Random random = new Random(42);
+        char[] alphabet = {'a', 'b', ',', '\n', '\n', '\r'};
+        for (int i = 0; i < 500; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertSplitsLike(text.toString());
+        }
+    }
+
+    private void assertMappedSplitsLike(String text) throws Exception {
+        Path file = tempDir.resolve("lines.txt");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        try (LineReader reader = LineReader.map(file, StandardCharsets.UTF_8)) {
+            assertEquals(Arrays.asList(text.split("\n")), readAll(reader), "input: " + text.replace("\n", "\\n"));
+        }
+    }
+
+    @Test
+    @DisplayName("Memory-mapped lines match String.split on newline")
+    void testMappedMatchesSplit() throws Exception {
+        assertMappedSplitsLike("");
+        assertMappedSplitsLike("\n\n\n");
+        assertMappedSplitsLike("abc");
+        assertMappedSplitsLike("a\n\nb\n\n\nc\n");
+        assertMappedSplitsLike("a\r\nb\r\n");
+        assertMappedSplitsLike("Am\u00e9lie,A123\nDrama\n\u65e5\u672c\n");
+        assertMappedSplitsLike("x".repeat(20_000) + "\ny");
+    }
+
+    @Test
+    @DisplayName("Random memory-mapped inputs match String.split on newline")
+    void testMappedRandomInputs() throws Exception {
+        Random random = new Random(7);
+        char[] alphabet = {'a', '\u00e9', ',', '\n', '\n', '\r'};
+        for (int i = 0; i < 200; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(40);
+            for (int j = 0; j < length; j++) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertMappedSplitsLike(text.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Mapping rejects charsets whose newline is not a single byte")
+    void testMapRejectsUtf16() {
+        assertThrows(IllegalArgumentException.class,
+                () -> LineReader.map(tempDir.resolve("lines.txt"), StandardCharsets.UTF_16));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.Metrics;
+import com.example.MovieParser;
+
+public class MetricsTest {
+
+    @Test
+    void countersAddUp() {
+        Metrics metrics = new Metrics();
+        metrics.counter("a").increment();
+        metrics.counter("a").add(4);
+
+        assertEquals(5, metrics.counter("a").get());
+        assertEquals(0, metrics.counter("b").get());
+    }
+
+    @Test
+    void histogramPercentilesAreBucketUpperBounds() {
+        Metrics metrics = new Metrics();
+        Metrics.Histogram histogram = metrics.histogram("latency_ns");
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(5050, histogram.getSum());
+        assertEquals(100, histogram.getMax());
+        assertEquals(63, histogram.percentile(0.5)); // 50 falls in [32, 64)
+        assertEquals(100, histogram.percentile(0.99)); // Capped by the maximum
+        assertEquals(0, metrics.histogram("empty").percentile(0.5));
+    }
+
+    @Test
+    void resetKeepsMetricsButZeroesThem() {
+        Metrics metrics = new Metrics();
+        Metrics.Counter counter = metrics.counter("a");
+        counter.increment();
+        metrics.histogram("h").record(7);
+        metrics.reset();
+
+        assertSame(counter, metrics.counter("a"));
+        assertEquals(0, counter.get());
+        assertEquals(0, metrics.histogram("h").getCount());
+    }
+
+    @Test
+    void jsonListsMetricsInNameOrder() {
+        Metrics metrics = new Metrics();
+        metrics.counter("b").add(2);
+        metrics.counter("a").increment();
+        metrics.histogram("h").record(3);
+
+        assertEquals("{\"counters\":{\"a\":1,\"b\":2},\"histograms\":{\"h\":"
+                + "{\"count\":1,\"sum\":3,\"max\":3,\"p50\":3,\"p90\":3,\"p99\":3}}}", metrics.toJson());
+    }
+
+    @Test
+    void parserReportsRecordCount() throws Exception {
+        Metrics.Counter records = Metrics.GLOBAL.counter("parser.movies.records");
+        long before = records.get();
+        new MovieParser().parseMovies("The Matrix,TM123\nAction\nInception,I456\nSci-Fi\n");
+
+        assertEquals(before + 2, records.get());
+    }
+}
@@ -4,11 +4,13 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.example.LineReader;
 import com.example.Movie;
 import com.example.MovieException;
 import com.example.MovieParser;
 
 import org.junit.jupiter.api.DisplayName;
+import java.io.StringReader;
 import java.util.List;
 
 public class MovieParseTest {
@@ -168,5 +170,18 @@ public class MovieParseTest {
         assertTrue(movies.get(1).getGenres().contains("Fantasy"));
         assertTrue(movies.get(1).getGenres().contains("Adventure"));
     }
+
+    @Test
+    @DisplayName("Stream movies one record at a time")
+    void testNextMovieStreamsRecords() throws Exception {
+        LineReader lines = new LineReader(new StringReader(
+                "The Matrix,TM123\nAction,Sci-Fi\n\nInception,I456\nThriller\n"));
+
+        Movie first = movieParser.nextMovie(lines);
+        assertEquals("TM123", first.getId());
+        Movie second = movieParser.nextMovie(lines);
+        assertEquals("Inception", second.getTitle());
+        assertEquals(List.of("Thriller"), second.getGenres());
+        assertNull(movieParser.nextMovie(lines));
+    }
 }
-    
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 
 import com.example.Movie;
 import com.example.MovieException;
+import com.example.SymbolTable;
 
 import org.junit.jupiter.api.DisplayName;
 import static org.junit.jupiter.api.Assertions.*;
@@ -143,4 +144,28 @@ public class MovieTest{
         assertDoesNotThrow(() -> new Movie("District 9", "D123", genres));
         assertDoesNotThrow(() -> new Movie("5 District 9 9", "D321", genres));
     }
+
+    @Test
+    @DisplayName("Movie genres and id are interned as ordinals")
+    public void testMovieOrdinals() throws Exception {
+        Movie first = new Movie("The Matrix", "TM456", Arrays.asList("Action", "Sci-Fi"));
+        Movie second = new Movie("Inception", "I789", Arrays.asList("Sci-Fi", "Thriller"));
+
+        assertEquals(first.getGenreOrdinals()[1], second.getGenreOrdinals()[0]);
+        assertNotEquals(first.getGenreOrdinals()[0], second.getGenreOrdinals()[1]);
+        assertEquals("TM456", SymbolTable.MOVIE_IDS.symbol(first.getIdOrdinal()));
+        assertEquals(Arrays.asList("Sci-Fi", "Thriller"), second.getGenres());
+    }
+
+    @Test
+    @DisplayName("Movie genre mask matches movies sharing a genre")
+    public void testMovieGenreMask() throws Exception {
+        Movie matrix = new Movie("The Matrix", "TM456", Arrays.asList("Action", "Sci-Fi"));
+        Movie inception = new Movie("Inception", "I789", Arrays.asList("Sci-Fi", "Thriller"));
+        Movie titanic = new Movie("Titanic", "T321", Arrays.asList("Romance"));
+
+        assertTrue(matrix.sharesGenre(inception.getGenreMask()));
+        assertFalse(matrix.sharesGenre(titanic.getGenreMask()));
+        assertFalse(titanic.sharesGenre(new long[0]));
+    }
 }
@@ -0,0 +1,67 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.ProgressReporter;
+import com.example.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+public class ProgressReporterTest {
+    private ByteArrayOutputStream output;
+    private PrintStream out;
+    private User user;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        output = new ByteArrayOutputStream();
+        out = new PrintStream(output, true);
+        user = new User("John Doe", "123456789", new ArrayList<>());
+    }
+
+    @Test
+    void normalLevelPrintsThrottledSummaries() {
+        ProgressReporter progress = new ProgressReporter(ProgressReporter.Level.NORMAL, 3, 1, TimeUnit.HOURS, out);
+        progress.userDone(user);
+        progress.userDone(user);
+        assertEquals("", output.toString());
+
+        progress.finish();
+        assertTrue(output.toString().startsWith("Generated recommendations for 2 users in "));
+        assertEquals(2, progress.getDone());
+    }
+
+    @Test
+    void summaryShowsCountRateAndEta() {
+        ProgressReporter progress = new ProgressReporter(ProgressReporter.Level.NORMAL, 4, 0, TimeUnit.SECONDS, out);
+        progress.userDone(user);
+
+        String text = output.toString();
+        assertTrue(text.startsWith("Progress: 1/4 users (25.0%), "), text);
+        assertTrue(text.contains(" users/s, ETA "), text);
+    }
+
+    @Test
+    void verboseLevelPrintsEveryUser() {
+        ProgressReporter progress = new ProgressReporter(ProgressReporter.Level.VERBOSE, 2, 1, TimeUnit.HOURS, out);
+        progress.userDone(user);
+
+        assertEquals("Generated recommendations for user: John Doe" + System.lineSeparator(), output.toString());
+    }
+
+    @Test
+    void quietLevelPrintsNothing() {
+        ProgressReporter progress = new ProgressReporter(ProgressReporter.Level.QUIET, 2, 0, TimeUnit.SECONDS, out);
+        progress.userDone(user);
+        progress.finish();
+
+        assertEquals("", output.toString());
+        assertEquals(1, progress.getDone());
+    }
+}
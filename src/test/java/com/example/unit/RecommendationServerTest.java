@@ -0,0 +1,99 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.DataStore;
+import com.example.Movie;
+import com.example.RecommendationServer;
+import com.example.Recommender;
+import com.example.User;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+public class RecommendationServerTest {
+    private DataStore dataStore;
+    private RecommendationServer server;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dataStore = new DataStore();
+        dataStore.addMovie(new Movie("The Matrix", "TM401", List.of("Action")));
+        dataStore.addMovie(new Movie("Inception", "I402", List.of("Action", "Thriller")));
+        dataStore.addMovie(new Movie("Titanic", "T403", List.of("Romance")));
+        dataStore.addUser(new User("John Doe", "400000001", List.of("TM401")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void answersQueryForKnownUser() throws Exception {
+        server = start(0);
+        HttpURLConnection connection = open("/recommendations/400000001");
+
+        assertEquals(200, connection.getResponseCode());
+        assertTrue(connection.getContentType().startsWith("application/json"));
+        assertEquals("{\"id\":\"400000001\",\"name\":\"John Doe\",\"recommendations\":"
+                + "[{\"id\":\"I402\",\"title\":\"Inception\"}]}", body(connection.getInputStream()));
+    }
+
+    @Test
+    void unknownUserIsNotFound() throws Exception {
+        server = start(0);
+        HttpURLConnection connection = open("/recommendations/499999999");
+
+        assertEquals(404, connection.getResponseCode());
+        assertTrue(body(connection.getErrorStream()).contains("499999999"));
+    }
+
+    @Test
+    void onlyGetIsAllowed() throws Exception {
+        server = start(0);
+        HttpURLConnection connection = open("/recommendations/400000001");
+        connection.setRequestMethod("DELETE");
+
+        assertEquals(405, connection.getResponseCode());
+        assertEquals("GET", connection.getHeaderField("Allow"));
+    }
+
+    @Test
+    void topKLimitsRankedRecommendations() throws Exception {
+        dataStore.addMovie(new Movie("Heat", "H404", List.of("Action")));
+        dataStore.addMovie(new Movie("Speed", "S405", List.of("Action", "Thriller")));
+        dataStore.addUser(new User("Jane Doe", "400000002", List.of("TM401", "I402")));
+        server = start(1);
+        HttpURLConnection connection = open("/recommendations/400000002");
+
+        assertEquals(200, connection.getResponseCode());
+        assertEquals("{\"id\":\"400000002\",\"name\":\"Jane Doe\",\"recommendations\":"
+                + "[{\"id\":\"S405\",\"title\":\"Speed\"}]}", body(connection.getInputStream()));
+    }
+
+    private RecommendationServer start(int topK) throws Exception {
+        RecommendationServer started = new RecommendationServer(dataStore, new Recommender(dataStore), topK);
+        started.start(0);
+        return started;
+    }
+
+    private HttpURLConnection open(String path) throws Exception {
+        return (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+    }
+
+    private static String body(InputStream in) throws Exception {
+        try (in) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
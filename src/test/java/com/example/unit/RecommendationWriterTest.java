@@ -8,6 +8,7 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import com.example.Metrics;
 import com.example.Movie;
 import com.example.RecommendationWriter;
 import com.example.User;
@@ -125,4 +126,61 @@ public class RecommendationWriterTest {
         assertEquals(5, lines.size());
     }
 
+    @Test
+    void testSessionWritesAllUsersOnClose() throws Exception {
+        User user1 = new User("Alice Smith", "111222333", List.of());
+        User user2 = new User("Bob Johnson", "444555666", List.of());
+        List<Movie> recommendations = List.of(
+            new Movie("Avatar", "A123", List.of("Sci-Fi", "Action")),
+            new Movie("Titanic", "T456", List.of("Romance", "Drama"))
+        );
+
+        try (RecommendationWriter session = new RecommendationWriter(tempFile.toString())) {
+            session.open();
+            session.writeRecommendations(user1, recommendations);
+            session.writeRecommendations(user2, List.of());
+        }
+
+        List<String> lines = Files.readAllLines(tempFile);
+        assertEquals(List.of("Alice Smith,111222333", "Avatar,Titanic", "Bob Johnson,444555666"), lines);
+    }
+
+    @Test
+    void testWriteAfterSessionClosedAppends() throws Exception {
+        User user1 = new User("Charlie Brown", "111111111", List.of());
+        User user2 = new User("Diana Prince", "222222222", List.of());
+
+        recommendationWriter.open();
+        recommendationWriter.writeRecommendations(user1, List.of());
+        recommendationWriter.close();
+        recommendationWriter.writeRecommendations(user2, List.of());
+
+        List<String> lines = Files.readAllLines(tempFile);
+        assertEquals(List.of("Charlie Brown,111111111", "Diana Prince,222222222"), lines);
+    }
+
+    @Test
+    void testFlushesCountBufferDrains() throws Exception {
+        Metrics.Counter flushes = Metrics.GLOBAL.counter("writer.flushes");
+        Metrics.Counter bytes = Metrics.GLOBAL.counter("writer.bytes");
+        Movie movie = new Movie("Avatar", "A321", List.of("Sci-Fi"));
+        long flushesBefore = flushes.get();
+        long bytesBefore = bytes.get();
+
+        // A session drains its buffer once, on close
+        try (RecommendationWriter session = new RecommendationWriter(tempFile.toString())) {
+            session.open();
+            for (int i = 0; i < 2000; i++) {
+                session.writeRecommendations(new User("Alice Smith", String.format("%09d", i), List.of()),
+                        List.of(movie));
+            }
+        }
+        assertEquals(flushesBefore + 1, flushes.get());
+        assertEquals(bytesBefore + Files.size(tempFile), bytes.get());
+
+        // Without a session every call drains its own buffer
+        recommendationWriter.writeRecommendations(new User("Bob Johnson", "444555666", List.of()), List.of());
+        recommendationWriter.writeRecommendations(new User("Bob Johnson", "444555667", List.of()), List.of());
+        assertEquals(flushesBefore + 3, flushes.get());
+    }
 }
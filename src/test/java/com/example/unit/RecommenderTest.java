@@ -198,4 +198,69 @@ public class RecommenderTest {
 
         assertEquals(recommendationsB, List.of(movie1, movie3)); // No recommendations for User B
     }
+
+    @Test
+    void manyLikedGenresSmallCatalog() throws Exception {
+        // More liked genres than catalog entries: matched by genre mask instead of postings
+        Movie liked = new Movie("Genre Mix", "GM123", List.of("Action", "Drama", "Comedy", "Horror"));
+        Movie movie2 = new Movie("Comedy Movie", "CM456", List.of("Comedy"));
+        Movie movie3 = new Movie("Musical Movie", "MM789", List.of("Musical"));
+        mockDataStore.addMovie(liked);
+        mockDataStore.addMovie(movie2);
+        mockDataStore.addMovie(movie3);
+
+        testUser = new User("Mixed Taste User", "121212121", new ArrayList<>());
+        testUser.addLikedMovie("GM123");
+
+        recommender = new Recommender(mockDataStore);
+        List<Movie> recommendations = recommender.recommendMovies(testUser);
+
+        assertEquals(List.of(movie2), recommendations);
+    }
+
+    @Test
+    void topMoviesRankedByGenreOverlap() throws Exception {
+        Movie liked1 = new Movie("Action Movie", "AM101", List.of("Action", "Drama"));
+        Movie liked2 = new Movie("War Movie", "WM102", List.of("Action", "War"));
+        Movie dramaOnly = new Movie("Drama Movie", "DM103", List.of("Drama"));
+        Movie actionOnly = new Movie("Chase Movie", "CM104", List.of("Action"));
+        Movie actionWar = new Movie("Battle Movie", "BM105", List.of("Action", "War"));
+        Movie warOnly = new Movie("Trench Movie", "TM106", List.of("War"));
+        Movie comedy = new Movie("Comedy Movie", "CM107", List.of("Comedy"));
+        for (Movie movie : List.of(liked1, liked2, dramaOnly, actionOnly, actionWar, warOnly, comedy)) {
+            mockDataStore.addMovie(movie);
+        }
+        testUser = new User("Test User", "123456789", List.of("AM101", "WM102"));
+        recommender = new Recommender(mockDataStore);
+
+        // Action is liked twice, Drama and War once; ties keep catalog order
+        assertEquals(List.of(actionWar, actionOnly, dramaOnly, warOnly), recommender.recommendTopMovies(testUser, 10));
+        assertEquals(List.of(actionWar, actionOnly), recommender.recommendTopMovies(testUser, 2));
+        assertEquals(List.of(), recommender.recommendTopMovies(testUser, 0));
+        assertThrows(IllegalArgumentException.class, () -> recommender.recommendTopMovies(testUser, -1));
+    }
+
+    @Test
+    void cachedCandidatesExcludeEachUsersOwnLikes() throws Exception {
+        Movie movie1 = new Movie("Action Movie", "AM201", List.of("Action"));
+        Movie movie2 = new Movie("Chase Movie", "CM202", List.of("Action"));
+        Movie movie3 = new Movie("Battle Movie", "BM203", List.of("Action", "War"));
+        mockDataStore.addMovie(movie1);
+        mockDataStore.addMovie(movie2);
+        mockDataStore.addMovie(movie3);
+        User userA = new User("User A", "111111111", List.of("AM201"));
+        User userB = new User("User B", "222222222", List.of("CM202"));
+        recommender = new Recommender(mockDataStore, 16);
+
+        // Both users like only Action movies, so they share one cache entry
+        assertEquals(List.of(movie2, movie3), recommender.recommendMovies(userA));
+        assertEquals(List.of(movie1, movie3), recommender.recommendMovies(userB));
+        assertEquals(List.of(movie1, movie3), recommender.recommendMovies(userB));
+
+        // Adding a movie invalidates the cached candidates
+        Movie movie4 = new Movie("Heist Movie", "HM204", List.of("Action"));
+        mockDataStore.addMovie(movie4);
+        assertEquals(List.of(movie2, movie3, movie4), recommender.recommendMovies(userA));
+        assertEquals(List.of(movie1, movie3), recommender.recommendTopMovies(userB, 2));
+    }
 }
@@ -0,0 +1,74 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.SymbolTable;
+
+public class SymbolTableTest {
+
+    @Test
+    @DisplayName("Distinct symbols get dense ordinals in first-seen order")
+    void testDenseOrdinals() {
+        SymbolTable table = new SymbolTable();
+
+        assertEquals(0, table.intern("Action"));
+        assertEquals(1, table.intern("Drama"));
+        assertEquals(0, table.intern("Action"));
+        assertEquals(2, table.intern("Comedy"));
+        assertEquals(3, table.size());
+    }
+
+    @Test
+    @DisplayName("Ordinals decode back to their symbols")
+    void testSymbolRoundTrip() {
+        SymbolTable table = new SymbolTable();
+        List<String> symbols = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            symbols.add("Genre" + i);
+        }
+        for (String symbol : symbols) {
+            table.intern(symbol);
+        }
+
+        for (int i = 0; i < symbols.size(); i++) {
+            assertEquals(symbols.get(i), table.symbol(i));
+            assertEquals(i, table.lookup(symbols.get(i)));
+        }
+    }
+
+    @Test
+    @DisplayName("Lookup of an unknown symbol does not assign an ordinal")
+    void testLookupUnknown() {
+        SymbolTable table = new SymbolTable();
+
+        assertEquals(-1, table.lookup("Western"));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    @DisplayName("Concurrent interning assigns each symbol exactly one ordinal")
+    void testConcurrentIntern() {
+        SymbolTable table = new SymbolTable();
+        ConcurrentHashMap<String, Integer> seen = new ConcurrentHashMap<>();
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> {
+            String symbol = "S" + (i % 500);
+            int ordinal = table.intern(symbol);
+            Integer previous = seen.putIfAbsent(symbol, ordinal);
+            assertTrue(previous == null || previous == ordinal);
+        });
+
+        assertEquals(500, table.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, table.lookup(table.symbol(i)));
+        }
+    }
+}
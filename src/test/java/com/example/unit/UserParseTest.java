@@ -3,18 +3,31 @@ package com.example.unit;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
+import com.example.DatasetGenerator;
+import com.example.LineReader;
+import com.example.SymbolTable;
 import com.example.User;
 import com.example.UserException;
 import com.example.UserParser;
 
 import org.junit.jupiter.api.DisplayName;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 public class UserParseTest {
 
     private UserParser userParser;
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void setUp() {
         userParser = new UserParser();
@@ -209,5 +222,128 @@ public class UserParseTest {
         assertEquals(2, users.get(0).getLikedMovies().size());
         assertEquals(1, users.get(1).getLikedMovies().size());
     }
-}
 
+    @Test
+    @DisplayName("Stream users one record at a time")
+    void testNextUserStreamsRecords() throws Exception {
+        LineReader lines = new LineReader(new StringReader(
+                "John Doe,123456789\nM001,M002\nJane Smith,12345678A\nM003\n"));
+
+        User first = userParser.nextUser(lines);
+        assertEquals("John Doe", first.getName());
+        assertEquals(List.of("M001", "M002"), first.getLikedMovies());
+        User second = userParser.nextUser(lines);
+        assertEquals("12345678A", second.getId());
+        assertNull(userParser.nextUser(lines));
+    }
+
+    @Test
+    @DisplayName("Streaming parse reports the line number of a bad record")
+    void testStreamingParseLineNumber() {
+        String userData = "John Doe,123456789\nM001\nBad Record\nM002\n";
+
+        Exception exception = assertThrows(UserException.class, () -> {
+            userParser.parseUsers(new StringReader(userData));
+        });
+        assertEquals("Invalid user data format at line 3", exception.getMessage());
+    }
+
+    @Test
+    @DisplayName("Parallel parse returns the same users in file order")
+    void testParallelParseMatchesSequential() throws Exception {
+        String userData = generateUsers(20000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<User> expected = new UserParser().parseUsers(userData);
+            List<User> users = userParser.parseUsers(write(userData), StandardCharsets.UTF_8, pool);
+
+            assertEquals(expected.size(), users.size());
+            for (int i = 0; i < users.size(); i++) {
+                assertEquals(expected.get(i).getName(), users.get(i).getName());
+                assertEquals(expected.get(i).getId(), users.get(i).getId());
+                assertEquals(expected.get(i).getLikedMovies(), users.get(i).getLikedMovies());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel parse reports the same first error as a sequential parse")
+    void testParallelParseFirstError() throws Exception {
+        String[] lines = generateUsers(20000).split("\n");
+        lines[30000] = "Bad Record";
+        lines[36000] = "Another Bad,Record,Here";
+        String userData = String.join("\n", lines) + "\n";
+        Path file = write(userData);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Exception exception = assertThrows(UserException.class, () -> {
+                userParser.parseUsers(file, StandardCharsets.UTF_8, pool);
+            });
+            assertEquals("Invalid user data format at line 30001", exception.getMessage());
+            Exception sequential = assertThrows(UserException.class, () -> {
+                new UserParser().parseUsers(userData);
+            });
+            assertEquals(sequential.getMessage(), exception.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel parse reports a missing liked movies line at the end")
+    void testParallelParseMissingLastLikedLine() throws Exception {
+        Path file = write(generateUsers(20000) + "Last User,999999999\n\n\n");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Exception exception = assertThrows(UserException.class, () -> {
+                userParser.parseUsers(file, StandardCharsets.UTF_8, pool);
+            });
+            assertEquals("Liked movies are invalid for user 999999999", exception.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel parse drops trailing empty lines and keeps interior ones")
+    void testParallelParseEmptyLines() throws Exception {
+        String[] lines = generateUsers(20000).split("\n");
+        lines[20001] = "";
+        String userData = String.join("\n", lines) + "\n".repeat(300000);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertEquals(20000, userParser.parseUsers(write(generateUsers(20000) + "\n".repeat(300000)),
+                    StandardCharsets.UTF_8, pool).size());
+            Exception exception = assertThrows(UserException.class, () -> {
+                new UserParser().parseUsers(write(userData), StandardCharsets.UTF_8, pool);
+            });
+            assertEquals("Liked movies are invalid for user " + lines[20000].split(",")[1], exception.getMessage());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Rejected record does not intern its liked movie IDs")
+    void testRejectedRecordIsNotInterned() {
+        String userData = "John 3Doe,123456789\nRJ517,RJ518\n";
+
+        assertThrows(UserException.class, () -> userParser.parseUsers(userData));
+        assertEquals(-1, SymbolTable.MOVIE_IDS.lookup("RJ517"));
+        assertEquals(-1, SymbolTable.MOVIE_IDS.lookup("RJ518"));
+    }
+
+    private Path write(String data) throws Exception {
+        Path file = Files.createTempFile(tempDir, "users", ".txt");
+        Files.writeString(file, data, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static String generateUsers(int users) throws Exception {
+        StringWriter out = new StringWriter();
+        new DatasetGenerator(100, 10, 1.0, 3, 7).writeUsers(out, users);
+        return out.toString();
+    }
+}
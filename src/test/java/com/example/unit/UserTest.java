@@ -10,6 +10,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import com.example.SymbolTable;
 import com.example.User;
 import com.example.UserException;
 
@@ -124,6 +125,19 @@ public class UserTest {
         assertTrue(user.getLikedMovies().contains("I123"));
         assertTrue(user.getLikedMovies().contains("A456"));
     }
+    @Test
+    @DisplayName("User - liked movies are kept as movie ID ordinals")
+    public void testUserLikedMovieOrdinals() {
+        User user = assertDoesNotThrow( ()->new User("John Doe", "123456789", List.of("I123")));
+        user.addLikedMovie("A456");
+
+        int[] ordinals = user.getLikedMovieOrdinals();
+        assertEquals(2, ordinals.length);
+        assertEquals(SymbolTable.MOVIE_IDS.lookup("I123"), ordinals[0]);
+        assertEquals(SymbolTable.MOVIE_IDS.lookup("A456"), ordinals[1]);
+        assertEquals(List.of("I123", "A456"), user.getLikedMovies());
+    }
+
     @Test
     @DisplayName("User - create with initial liked movies")
     public void testUserWithInitialLikedMovies() {
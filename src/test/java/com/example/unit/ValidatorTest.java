@@ -0,0 +1,102 @@
+package com.example.unit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.example.Validator;
+
+/**
+ * Checks every rule of {@link Validator} against the regular expressions it
+ * replaced, on hand-picked and random inputs.
+ */
+public class ValidatorTest {
+
+    private static final char[] ALPHABET = {'A', 'T', 'M', 'a', 'x', '0', '1', '9', ' ', ' ', '\t', '\r', '\n', '-', ','};
+
+    private static boolean regexTitle(String title) {
+        String strippedTitle = title.replaceAll(" [0-9]", "");
+        strippedTitle = strippedTitle.replaceAll("[0-9] ", "");
+        strippedTitle = strippedTitle.replaceAll("[0-9]", "");
+        return strippedTitle.matches("^([A-Z][a-z]*)(\\s[A-Z][a-z]*)*$");
+    }
+
+    private static boolean regexMovieId(String title, String id) {
+        String expectedLetters = title.replaceAll("[^A-Z]", "");
+        String idLetters = id.replaceAll("[^A-Z]", "");
+        String idNumbers = id.replaceAll("[^0-9]", "");
+        return idLetters.equals(expectedLetters) && idNumbers.length() == 3;
+    }
+
+    private static String random(Random random, int maxLength) {
+        StringBuilder s = new StringBuilder();
+        int length = random.nextInt(maxLength + 1);
+        for (int i = 0; i < length; i++) {
+            s.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+        }
+        return s.toString();
+    }
+
+    @Test
+    @DisplayName("Title rule matches the title regex")
+    void testTitle() {
+        String[] titles = {"The Matrix", "the Matrix", "The DARK Knight", "Se7en", "District 9",
+                "5 District 9 9", "A 12 B", "", " The", "The ", "The  Matrix", "The\tMatrix", "Abc\n"};
+        for (String title : titles) {
+            assertEquals(regexTitle(title), Validator.isValidTitle(title), title);
+        }
+        Random random = new Random(1);
+        for (int i = 0; i < 20_000; i++) {
+            String title = random(random, 12);
+            assertEquals(regexTitle(title), Validator.isValidTitle(title), title);
+        }
+    }
+
+    @Test
+    @DisplayName("Movie id rule matches the id regexes")
+    void testMovieId() {
+        assertTrue(Validator.isValidMovieId("The Dark Knight", "TDK123"));
+        assertFalse(Validator.isValidMovieId("The Dark Knight", "TDK"));
+        assertFalse(Validator.isValidMovieId("The Dark Knight", "TK123"));
+        assertFalse(Validator.isValidMovieId("Speed", "S1234"));
+        Random random = new Random(2);
+        for (int i = 0; i < 20_000; i++) {
+            String title = random(random, 6);
+            String id = random(random, 6);
+            assertEquals(regexMovieId(title, id), Validator.isValidMovieId(title, id), title + "/" + id);
+        }
+    }
+
+    @Test
+    @DisplayName("User rules match the user regexes")
+    void testUser() {
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            String s = random(random, 6);
+            assertEquals(s.matches("[A-Za-z][A-Za-z\\s]*"), Validator.isValidUserName(s), s);
+            assertEquals(s.matches("[0-9]+[A-Za-z]?"), Validator.isValidUserId(s), s);
+        }
+        assertTrue(Validator.isValidUserId("12345678A"));
+        assertFalse(Validator.isValidUserId("A"));
+        assertFalse(Validator.isValidUserId(""));
+    }
+
+    @Test
+    @DisplayName("Digit rules match the digit regexes")
+    void testDigits() {
+        String[] inputs = {"", "M001", "Sci-Fi", "Sci1\r", " 1", "1\u0085", "a1b"};
+        for (String s : inputs) {
+            assertEquals(s.matches(".*\\d.*"), Validator.hasDigit(s), s);
+            assertEquals(s.replaceAll("\\D+", ""), Validator.digits(s), s);
+        }
+        Random random = new Random(4);
+        for (int i = 0; i < 20_000; i++) {
+            String s = random(random, 6);
+            assertEquals(s.matches(".*\\d.*"), Validator.hasDigit(s), s);
+            assertEquals(s.replaceAll("\\D+", ""), Validator.digits(s), s);
+        }
+    }
+}
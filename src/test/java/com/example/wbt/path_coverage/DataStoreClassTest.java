@@ -14,13 +14,10 @@ import java.util.List;
 
 // START
 // Extract numeric part of movie ID
-// FOR each movie in movies
-//   |
-// numericPart equals other movie numericPart ?
+// numericPart already in seen numeric parts ?
 //   |----YES----> THROW DataIntegrityException ---> END
 //   |
-// END FOR
-// Add movie to movies list
+// Add movie to movies list and ID index
 // END
 
 //addUser path coverage test: 
@@ -37,36 +34,28 @@ import java.util.List;
 // START
 // FOR each liked movie ID
 //   |
-// Movie exists in movies list ?
+// Movie ID in movie index ?
 //   |----NO----> THROW DataIntegrityException ---> END
 //   |
 // END FOR
-// FOR each existing user
-//   |
-// User ID duplicate ?
+// User ID in user index ?
 //   |----YES----> THROW DataIntegrityException ---> END
 //   |
-// END FOR
 // RETURN true
 // END
 
 //getMovieById path coverage test:
 
 // START
-// FOR each movie in movies
-//   |
-// Movie ID equals checked ID ?
-//   |----YES----> RETURN movie ---> END
-//   |
-// END FOR
-// RETURN null (not found)
-// END
+// Look up ID in movie index
+//   |----FOUND----> RETURN movie ---> END
+//   |----NOT FOUND----> RETURN null ---> END
 
 public class DataStoreClassTest {
 
     // ===================== addMovie =====================
 
-    // PATH 1: add first movie (loop 0 times)
+    // PATH 1: add first movie (no numeric parts seen yet)
     @Test
     void addMovieFirst() throws Exception {
         DataStore store = new DataStore();
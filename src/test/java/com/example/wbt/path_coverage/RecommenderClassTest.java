@@ -13,18 +13,24 @@ import java.util.ArrayList;
 
 
 // START
-// Get liked movies -> likedMovies list
+// Get liked movies -> likedMovies set
 // FOR each liked movie
 //   |
-// Collect genres -> likedGenres list
+// OR genre mask -> likedGenres mask
 // END FOR
-// FOR each movie in dataStore
+// IF merging postings costs more than a catalog scan
 //   |
-// IF movie in likedMovies -> skip
+//   FOR each movie in dataStore
+//     IF movie in likedMovies -> skip
+//     ELSE IF genre mask AND likedGenres != 0 -> add to recommendations
+//   END FOR
 // ELSE
 //   |
-// IF any genre in likedGenres -> add to recommendations
-// END FOR
+//   FOR each liked genre -> union genre postings -> candidates
+//   FOR each candidate in catalog order
+//     IF movie in likedMovies -> skip
+//     ELSE -> add to recommendations
+//   END FOR
 // RETURN recommendations
 // END
 